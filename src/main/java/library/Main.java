@@ -5,16 +5,20 @@ import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
-import library.dao.BookDao;
+import library.dao.DbConnection;
+import library.dao.DbExecutor;
 import library.dao.LibrarianDao;
-import library.dao.LoanDao;
-import library.dao.MemberDao;
+import library.dao.SchemaMigrator;
 import library.model.Librarian;
+import library.search.CatalogIndex;
 
 import java.sql.SQLException;
 
 public class Main extends Application {
 
+    // Run with -Dlibrary.stats=true to print pool and write queue statistics on exit.
+    private static final boolean PRINT_STATS = Boolean.getBoolean("library.stats");
+
     public static void main(String[] args) {
         launch(args);
     }
@@ -22,6 +26,7 @@ public class Main extends Application {
     @Override
     public void start(Stage primaryStage) {
         initDatabase();
+        CatalogIndex.getInstance().loadInBackground();
 
         try {
             FXMLLoader loader = new FXMLLoader(
@@ -39,17 +44,21 @@ public class Main extends Application {
         }
     }
 
+    @Override
+    public void stop() {
+        if (PRINT_STATS) {
+            System.out.println("Connection pool: " + DbConnection.getPoolStats());
+            System.out.println("Write queue: " + DbConnection.getWriteStats());
+        }
+        DbExecutor.shutdown();
+        DbConnection.shutdown();
+    }
+
     private void initDatabase() {
         try {
-            BookDao bookDao = new BookDao();
-            MemberDao memberDao = new MemberDao();
-            LibrarianDao librarianDao = new LibrarianDao();
-            LoanDao loanDao = new LoanDao();
+            new SchemaMigrator().migrate();
 
-            bookDao.createTableIfNotExists();
-            memberDao.createTableIfNotExists();
-            librarianDao.createTableIfNotExists();
-            loanDao.createTableIfNotExists();
+            LibrarianDao librarianDao = new LibrarianDao();
 
             if (!librarianDao.existsByUsername("admin")) {
                 Librarian admin = new Librarian("admin", "admin123");
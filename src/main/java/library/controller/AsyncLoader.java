@@ -0,0 +1,48 @@
+package library.controller;
+
+import library.dao.DbExecutor;
+import library.dao.SqlCall;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+// One loader per thing a screen shows. Starting a new load cancels the one
+// still in flight, and only the latest result is applied (on the FX thread).
+// Must be used from the FX thread.
+class AsyncLoader {
+
+    private CompletableFuture<?> current;
+
+    <T> void load(SqlCall<T> call, Consumer<T> onLoaded, Consumer<Throwable> onError) {
+        cancel();
+
+        CompletableFuture<T> request = DbExecutor.submit(call);
+        current = request;
+
+        request.whenComplete((value, error) -> FxUpdates.post(() -> {
+            if (current != request) {
+                return;
+            }
+            current = null;
+
+            if (error == null) {
+                onLoaded.accept(value);
+            } else if (!(error instanceof CancellationException)) {
+                onError.accept(error instanceof CompletionException ? error.getCause() : error);
+            }
+        }));
+    }
+
+    boolean isLoading() {
+        return current != null;
+    }
+
+    void cancel() {
+        if (current != null) {
+            current.cancel(true);
+            current = null;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package library.controller;
+
+import javafx.concurrent.Task;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.stage.FileChooser;
+import javafx.stage.Window;
+import library.io.ChunkedCsvImporter;
+import library.io.ImportReject;
+import library.io.ImportResult;
+
+import java.io.File;
+import java.util.List;
+
+// The "Import CSV..." button, progress bar and status label shared by the
+// librarian screens. The import runs on its own thread; the screen reloads
+// its table when it ends, whether it finished or stopped part way.
+class CsvImportDialog {
+
+    private final Button importButton;
+    private final ProgressBar importProgressBar;
+    private final Label importStatusLabel;
+
+    CsvImportDialog(Button importButton, ProgressBar importProgressBar, Label importStatusLabel) {
+        this.importButton = importButton;
+        this.importProgressBar = importProgressBar;
+        this.importStatusLabel = importStatusLabel;
+    }
+
+    void run(Window owner, String title, ChunkedCsvImporter<?> importer, String threadName, Runnable reload) {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle(title);
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV files", "*.csv"));
+        File file = chooser.showOpenDialog(owner);
+        if (file == null) {
+            return;
+        }
+
+        Task<ImportResult> task = new Task<>() {
+            @Override
+            protected ImportResult call() throws Exception {
+                return importer.importFile(file.toPath(), (rows, bytesRead, totalBytes) -> {
+                    updateProgress(bytesRead, totalBytes);
+                    updateMessage(rows + " rows read");
+                });
+            }
+        };
+
+        importButton.setDisable(true);
+        importProgressBar.setVisible(true);
+        importProgressBar.progressProperty().bind(task.progressProperty());
+        importStatusLabel.textProperty().bind(task.messageProperty());
+
+        task.setOnSucceeded(e -> {
+            finish();
+            ImportResult result = task.getValue();
+            importStatusLabel.setText(summary(result));
+            reload.run();
+            show(Alert.AlertType.INFORMATION, "Import finished", describe(result));
+        });
+        task.setOnFailed(e -> {
+            finish();
+            importStatusLabel.setText("Import failed");
+            Throwable error = task.getException();
+            error.printStackTrace();
+            reload.run();
+            show(Alert.AlertType.ERROR, "Import error", "The import stopped:\n" + error.getMessage());
+        });
+
+        Thread worker = new Thread(task, threadName);
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    private void finish() {
+        importProgressBar.progressProperty().unbind();
+        importStatusLabel.textProperty().unbind();
+        importProgressBar.setVisible(false);
+        importButton.setDisable(false);
+    }
+
+    private static String summary(ImportResult result) {
+        String text = result.getImported() + " imported, ";
+        if (result.getDuplicates() > 0) {
+            text += result.getDuplicates() + " duplicates, ";
+        }
+        return text + result.getRejected() + " rejected";
+    }
+
+    private static String describe(ImportResult result) {
+        StringBuilder text = new StringBuilder()
+                .append("Rows read: ").append(result.getRowsRead())
+                .append("\nImported: ").append(result.getImported());
+        if (result.getDuplicates() > 0) {
+            text.append("\nDuplicates (last row kept): ").append(result.getDuplicates());
+        }
+        text.append("\nRejected: ").append(result.getRejected())
+                .append("\nTime: ").append(result.getElapsedMillis()).append(" ms");
+
+        List<ImportReject> rejects = result.getRejects();
+        for (int i = 0; i < Math.min(rejects.size(), 10); i++) {
+            text.append("\n").append(rejects.get(i));
+        }
+        if (result.getRejected() > 10) {
+            text.append("\n...");
+        }
+        return text.toString();
+    }
+
+    private static void show(Alert.AlertType type, String title, String message) {
+        Alert alert = new Alert(type);
+        alert.setHeaderText(null);
+        alert.setTitle(title);
+        alert.setContentText(message);
+        alert.showAndWait();
+    }
+}
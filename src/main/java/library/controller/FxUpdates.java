@@ -0,0 +1,34 @@
+package library.controller;
+
+import javafx.application.Platform;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Coalesces UI updates from background threads: however many results arrive
+// between two pulses, they are applied in order by a single Platform.runLater.
+final class FxUpdates {
+
+    private static final Queue<Runnable> PENDING = new ConcurrentLinkedQueue<>();
+    private static final AtomicBoolean SCHEDULED = new AtomicBoolean();
+
+    private FxUpdates() {
+    }
+
+    static void post(Runnable update) {
+        PENDING.add(update);
+        if (SCHEDULED.compareAndSet(false, true)) {
+            Platform.runLater(FxUpdates::drain);
+        }
+    }
+
+    private static void drain() {
+        SCHEDULED.set(false);
+
+        Runnable update;
+        while ((update = PENDING.poll()) != null) {
+            update.run();
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package library.controller;
+
+import javafx.collections.ObservableList;
+import javafx.collections.ObservableListBase;
+import javafx.scene.control.TableRow;
+import javafx.scene.control.TableView;
+import javafx.util.Callback;
+import library.dao.SqlCall;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Table items that are fetched a keyset page at a time. A TableView only
+// creates rows for the visible indices, so the next page is requested when
+// a row close to the end of the loaded items is laid out. Pages and search
+// results load off the FX thread; a newer load supersedes an older one.
+//
+// Only the pages around the rows last laid out are kept. The others are
+// dropped, keeping just their last row, and are fetched again after the
+// previous page's last row (or at their offset, for search results) when
+// the table scrolls back to them. Until then their rows read as null.
+public class LazyPagedList<T> {
+
+    @FunctionalInterface
+    public interface PageFetcher<T> {
+        List<T> fetch(T after, int limit) throws SQLException;
+    }
+
+    // Search results are ranked, so they are paged by offset instead.
+    @FunctionalInterface
+    public interface SearchFetcher<T> {
+        List<T> fetch(int offset, int limit) throws SQLException;
+    }
+
+    private static final int DEFAULT_PAGE_SIZE = 200;
+    private static final int PREFETCH_ROWS = 50;
+    // Pages kept on each side of the page last laid out.
+    private static final int KEPT_PAGES = 3;
+
+    private final Rows items = new Rows();
+    private final PageFetcher<T> fetcher;
+    private final int pageSize;
+
+    private final AsyncLoader loader = new AsyncLoader();
+    private Consumer<Throwable> onError = Throwable::printStackTrace;
+    private TableView<T> table;
+
+    private SearchFetcher<T> search;
+    private boolean paging;
+    private boolean exhausted;
+
+    // pages.get(p) holds page p, or null once dropped; lastRows.get(p) is the
+    // last row page p had when it was first loaded. Every page but the last is full.
+    private final List<List<T>> pages = new ArrayList<>();
+    private final List<T> lastRows = new ArrayList<>();
+    private int size;
+    private int lastShown;
+    // A dropped page asked for while another load was running.
+    private int wantedPage = -1;
+
+    public LazyPagedList(PageFetcher<T> fetcher) {
+        this(fetcher, DEFAULT_PAGE_SIZE);
+    }
+
+    public LazyPagedList(PageFetcher<T> fetcher, int pageSize) {
+        this.fetcher = fetcher;
+        this.pageSize = pageSize;
+    }
+
+    // Rows of dropped pages read as null; see getLoadedItems().
+    public ObservableList<T> getItems() {
+        return items;
+    }
+
+    // The rows held right now, without fetching dropped pages again.
+    public List<T> getLoadedItems() {
+        List<T> loaded = new ArrayList<>();
+        for (List<T> page : pages) {
+            if (page != null) {
+                loaded.addAll(page);
+            }
+        }
+        return loaded;
+    }
+
+    public void setOnError(Consumer<Throwable> onError) {
+        this.onError = onError;
+    }
+
+    // Shows the table's items and wraps its current row factory, so call
+    // this after any custom row factory has been installed.
+    public void bind(TableView<T> table) {
+        this.table = table;
+        table.setItems(items);
+
+        Callback<TableView<T>, TableRow<T>> base = table.getRowFactory();
+        table.setRowFactory(tv -> {
+            TableRow<T> row = (base != null) ? base.call(tv) : new TableRow<>();
+            row.indexProperty().addListener((obs, oldIndex, newIndex) -> {
+                if (newIndex.intValue() < 0) {
+                    return;
+                }
+                lastShown = newIndex.intValue();
+                if (newIndex.intValue() >= size - PREFETCH_ROWS) {
+                    loadNextPage();
+                }
+            });
+            return row;
+        });
+    }
+
+    // Replaces everything loaded so far with the first page. The current
+    // items stay visible until it arrives.
+    public void reset() {
+        search = null;
+        paging = true;
+        exhausted = false;
+        fetch(() -> fetcher.fetch(null, pageSize), true);
+    }
+
+    // Shows search hits a page at a time: the first page appears as soon
+    // as it is fetched, the rest load as the table is scrolled.
+    public void showSearch(SearchFetcher<T> search) {
+        this.search = search;
+        paging = true;
+        exhausted = false;
+        fetch(() -> search.fetch(0, pageSize), true);
+    }
+
+    // Shows a fixed result (e.g. search hits) without paging. It cannot be
+    // fetched again, so none of it is dropped.
+    public void showAll(SqlCall<List<T>> query) {
+        search = null;
+        paging = false;
+        exhausted = true;
+        loader.load(query, this::replaceWith, onError);
+    }
+
+    public void loadNextPage() {
+        if (!paging || exhausted || loader.isLoading()) {
+            return;
+        }
+
+        if (search != null) {
+            SearchFetcher<T> current = search;
+            int offset = size;
+            fetch(() -> current.fetch(offset, pageSize), false);
+        } else {
+            T after = lastRows.isEmpty() ? null : lastRows.get(lastRows.size() - 1);
+            fetch(() -> fetcher.fetch(after, pageSize), false);
+        }
+    }
+
+    private void fetch(SqlCall<List<T>> page, boolean replace) {
+        loader.load(page, rows -> {
+            if (rows.size() < pageSize) {
+                exhausted = true;
+            }
+            if (replace) {
+                replaceWith(rows);
+            } else {
+                int from = size;
+                addPages(rows);
+                items.added(from, size);
+                dropFarPages();
+                fetchWantedPage();
+            }
+        }, onError);
+    }
+
+    private void replaceWith(List<T> rows) {
+        List<T> removed = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            removed.add(loadedRow(i));
+        }
+
+        pages.clear();
+        lastRows.clear();
+        size = 0;
+        lastShown = 0;
+        wantedPage = -1;
+        addPages(rows);
+        items.replaced(removed, size);
+    }
+
+    private void addPages(List<T> rows) {
+        for (int from = 0; from < rows.size(); from += pageSize) {
+            List<T> page = new ArrayList<>(rows.subList(from, Math.min(from + pageSize, rows.size())));
+            pages.add(page);
+            lastRows.add(page.get(page.size() - 1));
+            size += page.size();
+        }
+    }
+
+    private T row(int index) {
+        if (pages.get(index / pageSize) == null) {
+            refetch(index / pageSize);
+            return null;
+        }
+        return loadedRow(index);
+    }
+
+    private T loadedRow(int index) {
+        List<T> page = pages.get(index / pageSize);
+        int at = index % pageSize;
+        return (page != null && at < page.size()) ? page.get(at) : null;
+    }
+
+    // Called while the table lays out its rows, so the page only arrives
+    // later; the table is refreshed then.
+    private void refetch(int page) {
+        if (loader.isLoading()) {
+            wantedPage = page;
+            return;
+        }
+
+        SqlCall<List<T>> call;
+        if (search != null) {
+            SearchFetcher<T> current = search;
+            int offset = page * pageSize;
+            call = () -> current.fetch(offset, pageSize);
+        } else {
+            T after = (page == 0) ? null : lastRows.get(page - 1);
+            call = () -> fetcher.fetch(after, pageSize);
+        }
+
+        loader.load(call, rows -> {
+            // Rows added or removed since the page was first loaded shift it a
+            // little; it keeps its slots so the table does not jump, and any
+            // it can no longer fill stay blank.
+            int length = Math.min(pageSize, size - page * pageSize);
+            pages.set(page, new ArrayList<>(rows.subList(0, Math.min(rows.size(), length))));
+            dropFarPages();
+            if (table != null) {
+                table.refresh();
+            }
+            fetchWantedPage();
+        }, onError);
+    }
+
+    private void fetchWantedPage() {
+        int wanted = wantedPage;
+        wantedPage = -1;
+        if (wanted >= 0 && wanted < pages.size() && pages.get(wanted) == null) {
+            refetch(wanted);
+        }
+    }
+
+    private void dropFarPages() {
+        if (!paging) {
+            return;
+        }
+
+        int center = Math.min(lastShown / pageSize, pages.size() - 1);
+        for (int p = 0; p < pages.size(); p++) {
+            if (Math.abs(p - center) > KEPT_PAGES) {
+                pages.set(p, null);
+            }
+        }
+    }
+
+    // The rows as the table sees them. Dropping and refilling a page does not
+    // change which rows the list holds, so only loads and replacements fire.
+    private class Rows extends ObservableListBase<T> {
+
+        @Override
+        public T get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return row(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        void added(int from, int to) {
+            if (from == to) {
+                return;
+            }
+            beginChange();
+            nextAdd(from, to);
+            endChange();
+        }
+
+        void replaced(List<T> removed, int added) {
+            beginChange();
+            if (!removed.isEmpty()) {
+                nextRemove(0, removed);
+            }
+            if (added > 0) {
+                nextAdd(0, added);
+            }
+            endChange();
+        }
+    }
+}
@@ -1,7 +1,5 @@
 package library.controller;
 
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -12,11 +10,11 @@ import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 import library.dao.BookDao;
+import library.io.BookCsvImporter;
 import library.model.Book;
 
 import java.io.IOException;
 import java.sql.SQLException;
-import java.util.List;
 
 public class LibrarianBooksController {
 
@@ -56,8 +54,18 @@ public class LibrarianBooksController {
     @FXML
     private TextField newCopyCountField;
 
+    @FXML
+    private Button importButton;
+
+    @FXML
+    private ProgressBar importProgressBar;
+
+    @FXML
+    private Label importStatusLabel;
+
     private final BookDao bookDao = new BookDao();
-    private final ObservableList<Book> bookList = FXCollections.observableArrayList();
+    private final LazyPagedList<Book> bookList = new LazyPagedList<>(bookDao::getBooksPage);
+    private LiveSearch liveSearch;
 
     @FXML
     public void initialize() {
@@ -67,43 +75,37 @@ public class LibrarianBooksController {
         categoryColumn.setCellValueFactory(new PropertyValueFactory<>("category"));
         copyCountColumn.setCellValueFactory(new PropertyValueFactory<>("copyCount"));
 
+        bookList.setOnError(e -> {
+            e.printStackTrace();
+            showError("Error loading books", e.getMessage());
+        });
+        bookList.bind(booksTable);
+        liveSearch = new LiveSearch(searchField, this::search);
         loadAllBooks();
     }
 
     private void loadAllBooks() {
-        try {
-            List<Book> books = bookDao.getAllBooks();
-            bookList.setAll(books);
-            booksTable.setItems(bookList);
-        } catch (SQLException e) {
-            e.printStackTrace();
-            showError("Error loading books", e.getMessage());
-        }
+        bookList.reset();
     }
 
     @FXML
     private void handleSearch(ActionEvent event) {
-        String keyword = searchField.getText().trim();
+        liveSearch.runNow();
+    }
 
+    private void search(String keyword) {
         if (keyword.isEmpty()) {
             loadAllBooks();
             return;
         }
 
-        try {
-            List<Book> result = bookDao.searchBooks(keyword);
-            bookList.setAll(result);
-            booksTable.setItems(bookList);
-        } catch (SQLException e) {
-            e.printStackTrace();
-            showError("Search error", e.getMessage());
-        }
+        bookList.showSearch((offset, limit) -> bookDao.searchBooks(keyword, offset, limit));
     }
 
     @FXML
     private void handleClearSearch(ActionEvent event) {
         searchField.clear();
-        loadAllBooks();
+        liveSearch.runNow();
     }
 
     @FXML
@@ -189,6 +191,12 @@ public class LibrarianBooksController {
         }
     }
 
+    @FXML
+    private void handleImportCsv(ActionEvent event) {
+        new CsvImportDialog(importButton, importProgressBar, importStatusLabel)
+                .run(booksTable.getScene().getWindow(), "Import books from CSV", new BookCsvImporter(), "book-import", this::loadAllBooks);
+    }
+
     private void showError(String title, String message) {
         Alert alert = new Alert(Alert.AlertType.ERROR);
         alert.setHeaderText(null);
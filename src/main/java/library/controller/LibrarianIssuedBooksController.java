@@ -7,16 +7,14 @@ import javafx.scene.control.Label;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.cell.PropertyValueFactory;
-import library.dao.BookDao;
 import library.dao.LoanDao;
-import library.dao.MemberDao;
 import library.model.Book;
 import library.model.Loan;
 import library.model.Member;
+import library.model.OverdueLoan;
 
-import java.sql.SQLException;
 import java.time.LocalDate;
-import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 
 public class LibrarianIssuedBooksController {
@@ -72,8 +70,7 @@ public class LibrarianIssuedBooksController {
     private final ObservableList<OverdueLoanView> overdueList = FXCollections.observableArrayList();
 
     private final LoanDao loanDao = new LoanDao();
-    private final BookDao bookDao = new BookDao();
-    private final MemberDao memberDao = new MemberDao();
+    private final AsyncLoader overdueLoader = new AsyncLoader();
 
     @FXML
     public void initialize() {
@@ -96,59 +93,42 @@ public class LibrarianIssuedBooksController {
         overdueList.clear();
         clearDetails();
 
-        try {
-            List<Loan> loans = loanDao.getOverdueLoans2();
-            LocalDate today = LocalDate.now();
-
-            for (Loan loan : loans) {
-                Book book = null;
-                Member member = null;
-
-                try {
-                    book = bookDao.getBookById(loan.getBookId());
-                } catch (SQLException e) {
-                    e.printStackTrace();
-                }
-
-                try {
-                    member = memberDao.getMemberById(loan.getMemberId());
-                } catch (SQLException e) {
-                    e.printStackTrace();
-                }
-
-                String bookTitle = (book != null) ? safe(book.getTitle(), "Unknown book")
-                        : "Book #" + loan.getBookId();
-                String category = (book != null) ? safe(book.getCategory(), "Unknown")
-                        : "Unknown";
-
-                String memberFullName = (member != null)
-                        ? safe(member.getName(), "") + " " + safe(member.getSurname(), "")
-                        : "Member #" + loan.getMemberId();
-
-                LocalDate due = loan.getDueDate();
-                long daysOverdue = 0;
-                if (due != null && due.isBefore(today)) {
-                    daysOverdue = ChronoUnit.DAYS.between(due, today);
-                }
-
-                OverdueLoanView view = new OverdueLoanView(
-                        loan,
-                        book,
-                        member,
-                        bookTitle,
-                        category,
-                        memberFullName.trim(),
-                        loan.getLoanDate(),
-                        due,
-                        daysOverdue
-                );
-
-                overdueList.add(view);
-            }
-
-        } catch (SQLException e) {
-            e.printStackTrace();
+        LocalDate today = LocalDate.now();
+        overdueLoader.load(() -> toViews(loanDao.getOverdueLoanDetails(today)),
+                overdueList::setAll, Throwable::printStackTrace);
+    }
+
+    private List<OverdueLoanView> toViews(List<OverdueLoan> overdueLoans) {
+        List<OverdueLoanView> views = new ArrayList<>(overdueLoans.size());
+
+        for (OverdueLoan overdue : overdueLoans) {
+            Loan loan = overdue.getLoan();
+            Book book = overdue.getBook();
+            Member member = overdue.getMember();
+
+            String bookTitle = (book != null) ? safe(book.getTitle(), "Unknown book")
+                    : "Book #" + loan.getBookId();
+            String category = (book != null) ? safe(book.getCategory(), "Unknown")
+                    : "Unknown";
+
+            String memberFullName = (member != null)
+                    ? safe(member.getName(), "") + " " + safe(member.getSurname(), "")
+                    : "Member #" + loan.getMemberId();
+
+            views.add(new OverdueLoanView(
+                    loan,
+                    book,
+                    member,
+                    bookTitle,
+                    category,
+                    memberFullName.trim(),
+                    loan.getLoanDate(),
+                    loan.getDueDate(),
+                    overdue.getDaysOverdue()
+            ));
         }
+
+        return views;
     }
 
     private void showDetails(OverdueLoanView view) {
@@ -1,7 +1,6 @@
 package library.controller;
 
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
+import javafx.beans.property.SimpleObjectProperty;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
@@ -11,6 +10,7 @@ import library.dao.MemberDao;
 import library.model.Book;
 import library.model.Loan;
 import library.model.Member;
+import library.util.IntIntMap;
 
 import java.sql.SQLException;
 import java.time.LocalDate;
@@ -51,6 +51,9 @@ public class LibrarianLoanController {
     @FXML
     private TableColumn<Book, String> bookCategoryColumn;
 
+    @FXML
+    private TableColumn<Book, Integer> bookAvailableColumn;
+
     @FXML
     private TextField bookSearchField;
 
@@ -70,8 +73,13 @@ public class LibrarianLoanController {
     private final BookDao bookDao = new BookDao();
     private final LoanDao loanDao = new LoanDao();
 
-    private final ObservableList<Member> memberList = FXCollections.observableArrayList();
-    private final ObservableList<Book> bookList = FXCollections.observableArrayList();
+    private final LazyPagedList<Member> memberList = new LazyPagedList<>(memberDao::getMembersPage);
+    private final LazyPagedList<Book> bookList = new LazyPagedList<>(this::fetchBooksPage);
+
+    private final AsyncLoader availabilityLoader = new AsyncLoader();
+
+    // Touched only on the FX thread.
+    private final IntIntMap activeLoanCounts = new IntIntMap();
 
     @FXML
     public void initialize() {
@@ -86,7 +94,25 @@ public class LibrarianLoanController {
         bookAuthorColumn.setCellValueFactory(new PropertyValueFactory<>("author"));
         bookIsbnColumn.setCellValueFactory(new PropertyValueFactory<>("isbn"));
         bookCategoryColumn.setCellValueFactory(new PropertyValueFactory<>("category"));
-
+        bookAvailableColumn.setCellValueFactory(cellData -> {
+            Book book = cellData.getValue();
+            if (book == null) {
+                return null;
+            }
+            int available = book.getCopyCount() - activeLoanCounts.get(book.getId());
+            return new SimpleObjectProperty<>(available);
+        });
+
+        memberList.setOnError(e -> {
+            e.printStackTrace();
+            showError("Error loading members", e.getMessage());
+        });
+        bookList.setOnError(e -> {
+            e.printStackTrace();
+            showError("Error loading books", e.getMessage());
+        });
+        memberList.bind(membersTable);
+        bookList.bind(booksTable);
         loadAllMembers();
         loadAllBooks();
 
@@ -104,25 +130,33 @@ public class LibrarianLoanController {
     }
 
     private void loadAllMembers() {
-        try {
-            List<Member> members = memberDao.getAllMembers();
-            memberList.setAll(members);
-            membersTable.setItems(memberList);
-        } catch (SQLException e) {
-            e.printStackTrace();
-            showError("Error loading members", e.getMessage());
-        }
+        memberList.reset();
     }
 
     private void loadAllBooks() {
-        try {
-            List<Book> books = bookDao.getAllBooks();
-            bookList.setAll(books);
-            booksTable.setItems(bookList);
-        } catch (SQLException e) {
-            e.printStackTrace();
-            showError("Error loading books", e.getMessage());
+        bookList.reset();
+    }
+
+    private List<Book> fetchBooksPage(Book after, int limit) throws SQLException {
+        return withAvailability(bookDao.getBooksPage(after, limit));
+    }
+
+    // Runs on a loader thread, with one grouped query per list or page instead
+    // of one count per book. The counts are queued for the FX thread before the
+    // books are returned, so they are in place when the rows are shown.
+    private List<Book> withAvailability(List<Book> books) throws SQLException {
+        int[] ids = new int[books.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = books.get(i).getId();
         }
+
+        IntIntMap counts = loanDao.countActiveLoansForBooks(ids);
+        FxUpdates.post(() -> {
+            for (int id : ids) {
+                activeLoanCounts.put(id, counts.get(id));
+            }
+        });
+        return books;
     }
 
     private void updateSelectedMemberLabel(Member member) {
@@ -164,14 +198,7 @@ public class LibrarianLoanController {
             return;
         }
 
-        try {
-            List<Member> result = memberDao.searchMembers(keyword);
-            memberList.setAll(result);
-            membersTable.setItems(memberList);
-        } catch (SQLException e) {
-            e.printStackTrace();
-            showError("Search error", e.getMessage());
-        }
+        memberList.showAll(() -> memberDao.searchMembers(keyword));
     }
 
     @FXML
@@ -188,14 +215,7 @@ public class LibrarianLoanController {
             return;
         }
 
-        try {
-            List<Book> result = bookDao.searchBooks(keyword);
-            bookList.setAll(result);
-            booksTable.setItems(bookList);
-        } catch (SQLException e) {
-            e.printStackTrace();
-            showError("Search error", e.getMessage());
-        }
+        bookList.showSearch((offset, limit) -> withAvailability(bookDao.searchBooks(keyword, offset, limit)));
     }
 
     @FXML
@@ -230,6 +250,12 @@ public class LibrarianLoanController {
             Loan loan = new Loan(book.getId(), member.getId(), loanDate, dueDate);
             loanDao.insertLoan(loan);
 
+            List<Book> shown = bookList.getLoadedItems();
+            availabilityLoader.load(() -> withAvailability(shown), books -> booksTable.refresh(), e -> {
+                e.printStackTrace();
+                showError("Error loading availability", e.getMessage());
+            });
+
             showInfo("Success", "The book has been successfully loaned.");
 
 
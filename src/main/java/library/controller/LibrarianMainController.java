@@ -1,17 +1,21 @@
 package library.controller;
 
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.ChoiceBox;
 import javafx.scene.control.Label;
-import library.dao.BookDao;
-import library.dao.LoanDao;
-import library.dao.MemberDao;
-import library.model.Loan;
-
-import java.sql.SQLException;
+import javafx.stage.DirectoryChooser;
+import library.dao.StatisticsDao;
+import library.io.DataExporter;
+import library.io.ExportFormat;
+import library.model.DashboardStats;
+
+import java.io.File;
+import java.nio.file.Path;
 import java.time.LocalDate;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
 
 public class LibrarianMainController {
 
@@ -30,45 +34,101 @@ public class LibrarianMainController {
     @FXML
     private Label overdueLoansLabel;
 
-    private final BookDao bookDao = new BookDao();
-    private final MemberDao memberDao = new MemberDao();
-    private final LoanDao loanDao = new LoanDao();
-
     @FXML
-    public void initialize() {
-        updateDashboard();
-    }
+    private ChoiceBox<ExportFormat> exportFormatChoice;
 
-    private void updateDashboard() {
-        try {
-            int totalBooks = bookDao.getAllBooks().size();
+    @FXML
+    private CheckBox exportGzipCheck;
 
-            int totalMembers = memberDao.getAllMembers().size();
+    @FXML
+    private Button exportButton;
 
-            List<Loan> activeLoans = loanDao.getActiveLoans();
-            int activeLoansCount = activeLoans.size();
+    @FXML
+    private Label exportStatusLabel;
 
-            Set<Integer> memberIdsWithActiveLoans = new HashSet<>();
-            for (Loan loan : activeLoans) {
-                memberIdsWithActiveLoans.add(loan.getMemberId());
-            }
-            int membersWithActiveLoansCount = memberIdsWithActiveLoans.size();
+    private final StatisticsDao statisticsDao = new StatisticsDao();
+    private final AsyncLoader dashboardLoader = new AsyncLoader();
 
-            int overdueLoansCount = loanDao.getOverdueLoans(LocalDate.now()).size();
+    @FXML
+    public void initialize() {
+        exportFormatChoice.getItems().setAll(ExportFormat.values());
+        exportFormatChoice.setValue(ExportFormat.CSV);
 
-            totalBooksLabel.setText(String.valueOf(totalBooks));
-            totalMembersLabel.setText(String.valueOf(totalMembers));
-            activeLoansLabel.setText(String.valueOf(activeLoansCount));
-            membersWithActiveLoansLabel.setText(String.valueOf(membersWithActiveLoansCount));
-            overdueLoansLabel.setText(String.valueOf(overdueLoansCount));
+        updateDashboard();
+    }
 
-        } catch (SQLException e) {
+    private void updateDashboard() {
+        LocalDate today = LocalDate.now();
+        dashboardLoader.load(() -> statisticsDao.getDashboardStats(today), this::showStats, e -> {
             e.printStackTrace();
             totalBooksLabel.setText("-");
             totalMembersLabel.setText("-");
             activeLoansLabel.setText("-");
             membersWithActiveLoansLabel.setText("-");
             overdueLoansLabel.setText("-");
+        });
+    }
+
+    private void showStats(DashboardStats stats) {
+        totalBooksLabel.setText(String.valueOf(stats.getTotalBooks()));
+        totalMembersLabel.setText(String.valueOf(stats.getTotalMembers()));
+        activeLoansLabel.setText(String.valueOf(stats.getActiveLoans()));
+        membersWithActiveLoansLabel.setText(String.valueOf(stats.getMembersWithActiveLoans()));
+        overdueLoansLabel.setText(String.valueOf(stats.getOverdueLoans()));
+    }
+
+    @FXML
+    private void handleExport() {
+        DirectoryChooser chooser = new DirectoryChooser();
+        chooser.setTitle("Export books, members and loans to");
+        File directory = chooser.showDialog(exportButton.getScene().getWindow());
+        if (directory == null) {
+            return;
         }
+
+        DataExporter exporter = new DataExporter(exportFormatChoice.getValue(), exportGzipCheck.isSelected());
+        Path dir = directory.toPath();
+
+        Task<String> task = new Task<>() {
+            @Override
+            protected String call() throws Exception {
+                long started = System.currentTimeMillis();
+
+                updateMessage("Exporting books...");
+                long books = exporter.exportBooks(exporter.fileFor(dir, "books"));
+                updateMessage("Exporting members...");
+                long members = exporter.exportMembers(exporter.fileFor(dir, "members"));
+                updateMessage("Exporting loans...");
+                long loans = exporter.exportLoans(exporter.fileFor(dir, "loans"));
+
+                return books + " books, " + members + " members, " + loans + " loans in "
+                        + (System.currentTimeMillis() - started) + " ms";
+            }
+        };
+
+        exportButton.setDisable(true);
+        exportStatusLabel.textProperty().bind(task.messageProperty());
+
+        task.setOnSucceeded(e -> {
+            exportStatusLabel.textProperty().unbind();
+            exportButton.setDisable(false);
+            exportStatusLabel.setText("Exported " + task.getValue());
+        });
+        task.setOnFailed(e -> {
+            exportStatusLabel.textProperty().unbind();
+            exportButton.setDisable(false);
+            exportStatusLabel.setText("Export failed");
+            task.getException().printStackTrace();
+
+            Alert alert = new Alert(Alert.AlertType.ERROR);
+            alert.setHeaderText(null);
+            alert.setTitle("Export error");
+            alert.setContentText("The export stopped:\n" + task.getException().getMessage());
+            alert.showAndWait();
+        });
+
+        Thread worker = new Thread(task, "data-export");
+        worker.setDaemon(true);
+        worker.start();
     }
 }
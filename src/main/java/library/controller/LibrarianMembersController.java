@@ -1,7 +1,5 @@
 package library.controller;
 
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -12,11 +10,11 @@ import javafx.scene.input.MouseButton;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 import library.dao.MemberDao;
+import library.io.MemberCsvImporter;
 import library.model.Member;
 
 import java.io.IOException;
 import java.sql.SQLException;
-import java.util.List;
 
 public class LibrarianMembersController {
 
@@ -44,8 +42,18 @@ public class LibrarianMembersController {
     @FXML
     private TextField searchField;
 
+    @FXML
+    private Button importButton;
+
+    @FXML
+    private ProgressBar importProgressBar;
+
+    @FXML
+    private Label importStatusLabel;
+
     private final MemberDao memberDao = new MemberDao();
-    private final ObservableList<Member> memberList = FXCollections.observableArrayList();
+    private final LazyPagedList<Member> memberList = new LazyPagedList<>(memberDao::getMembersPage);
+    private LiveSearch liveSearch;
 
     @FXML
     public void initialize() {
@@ -56,12 +64,10 @@ public class LibrarianMembersController {
         emailColumn.setCellValueFactory(new PropertyValueFactory<>("email"));
         addressColumn.setCellValueFactory(new PropertyValueFactory<>("homeAddress"));
 
-        loadAllMembers();
-
         membersTable.setRowFactory(tv -> {
             TableRow<Member> row = new TableRow<>();
             row.setOnMouseClicked(event -> {
-                if (!row.isEmpty()
+                if (!row.isEmpty() && row.getItem() != null
                         && event.getButton() == MouseButton.PRIMARY
                         && event.getClickCount() == 2) {
                     Member clickedMember = row.getItem();
@@ -70,41 +76,38 @@ public class LibrarianMembersController {
             });
             return row;
         });
-    }
 
-    private void loadAllMembers() {
-        try {
-            List<Member> members = memberDao.getAllMembers();
-            memberList.setAll(members);
-            membersTable.setItems(memberList);
-        } catch (SQLException e) {
+        memberList.setOnError(e -> {
             e.printStackTrace();
             showError("Error loading members", e.getMessage());
-        }
+        });
+        memberList.bind(membersTable);
+        liveSearch = new LiveSearch(searchField, this::search);
+        loadAllMembers();
+    }
+
+    private void loadAllMembers() {
+        memberList.reset();
     }
 
     @FXML
     private void handleSearch() {
-        String keyword = searchField.getText().trim();
+        liveSearch.runNow();
+    }
+
+    private void search(String keyword) {
         if (keyword.isEmpty()) {
             loadAllMembers();
             return;
         }
 
-        try {
-            List<Member> result = memberDao.searchMembers(keyword);
-            memberList.setAll(result);
-            membersTable.setItems(memberList);
-        } catch (SQLException e) {
-            e.printStackTrace();
-            showError("Search error", e.getMessage());
-        }
+        memberList.showSearch((offset, limit) -> memberDao.searchMembers(keyword, offset, limit));
     }
 
     @FXML
     private void handleClearSearch() {
         searchField.clear();
-        loadAllMembers();
+        liveSearch.runNow();
     }
 
     @FXML
@@ -188,6 +191,12 @@ public class LibrarianMembersController {
         }
     }
 
+    @FXML
+    private void handleImportCsv() {
+        new CsvImportDialog(importButton, importProgressBar, importStatusLabel)
+                .run(membersTable.getScene().getWindow(), "Import members from CSV", new MemberCsvImporter(), "member-import", this::loadAllMembers);
+    }
+
     private void showError(String title, String message) {
         Alert a = new Alert(Alert.AlertType.ERROR);
         a.setHeaderText(null);
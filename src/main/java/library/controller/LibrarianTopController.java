@@ -6,17 +6,16 @@ import javafx.fxml.FXML;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.cell.PropertyValueFactory;
-import library.dao.BookDao;
 import library.dao.LoanDao;
-import library.model.Book;
-import library.model.Loan;
+import library.model.TopEntry;
 
-import java.sql.SQLException;
-import java.util.*;
-import java.util.stream.Collectors;
+import java.util.ArrayList;
+import java.util.List;
 
 public class LibrarianTopController {
 
+    private static final int TOP_LIMIT = 10;
+
     // Top authors table
     @FXML
     private TableView<TopItem> topAuthorsTable;
@@ -41,7 +40,8 @@ public class LibrarianTopController {
     private final ObservableList<TopItem> topCategoriesList = FXCollections.observableArrayList();
 
     private final LoanDao loanDao = new LoanDao();
-    private final BookDao bookDao = new BookDao();
+    private final AsyncLoader authorsLoader = new AsyncLoader();
+    private final AsyncLoader categoriesLoader = new AsyncLoader();
 
     @FXML
     public void initialize() {
@@ -61,48 +61,18 @@ public class LibrarianTopController {
         topAuthorsList.clear();
         topCategoriesList.clear();
 
-        try {
-            List<Loan> loans = loanDao.getAllLoans();
-
-            Map<String, Integer> authorCounts = new HashMap<>();
-            Map<String, Integer> categoryCounts = new HashMap<>();
-
-            for (Loan loan : loans) {
-                Book book = bookDao.getBookById(loan.getBookId());
-                if (book == null) continue;
-
-                String author = safeString(book.getAuthor(), "Unknown");
-                String category = safeString(book.getCategory(), "Unknown");
-
-                authorCounts.put(author, authorCounts.getOrDefault(author, 0) + 1);
-                categoryCounts.put(category, categoryCounts.getOrDefault(category, 0) + 1);
-            }
-
-            List<TopItem> topAuthors = authorCounts.entrySet().stream()
-                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
-                    .limit(10)
-                    .map(e -> new TopItem(e.getKey(), e.getValue()))
-                    .collect(Collectors.toList());
-
-            List<TopItem> topCategories = categoryCounts.entrySet().stream()
-                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
-                    .limit(10)
-                    .map(e -> new TopItem(e.getKey(), e.getValue()))
-                    .collect(Collectors.toList());
-
-            topAuthorsList.setAll(topAuthors);
-            topCategoriesList.setAll(topCategories);
-
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+        authorsLoader.load(() -> toTopItems(loanDao.getTopAuthors(TOP_LIMIT)),
+                topAuthorsList::setAll, Throwable::printStackTrace);
+        categoriesLoader.load(() -> toTopItems(loanDao.getTopCategories(TOP_LIMIT)),
+                topCategoriesList::setAll, Throwable::printStackTrace);
     }
 
-    private String safeString(String value, String fallback) {
-        if (value == null || value.isBlank()) {
-            return fallback;
+    private List<TopItem> toTopItems(List<TopEntry> entries) {
+        List<TopItem> items = new ArrayList<>(entries.size());
+        for (TopEntry entry : entries) {
+            items.add(new TopItem(entry.getName(), entry.getCount()));
         }
-        return value;
+        return items;
     }
 
     public static class TopItem {
@@ -0,0 +1,48 @@
+package library.controller;
+
+import javafx.animation.PauseTransition;
+import javafx.scene.control.TextField;
+import javafx.util.Duration;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+
+// Runs a search once typing pauses. A keystroke only restarts a timer on
+// the FX thread; the search itself is expected to load asynchronously, and
+// a newer search cancels the one still running. Enter searches right away.
+class LiveSearch {
+
+    private static final Duration DELAY = Duration.millis(200);
+
+    private final TextField field;
+    private final Consumer<String> search;
+    private final PauseTransition pause = new PauseTransition(DELAY);
+
+    private String lastKeyword;
+
+    LiveSearch(TextField field, Consumer<String> search) {
+        this.field = field;
+        this.search = search;
+
+        pause.setOnFinished(e -> {
+            String keyword = keyword();
+            // Typing and deleting back to the same text needs no new search.
+            if (!Objects.equals(keyword, lastKeyword)) {
+                runNow();
+            }
+        });
+        field.textProperty().addListener((obs, oldVal, newVal) -> pause.playFromStart());
+        field.setOnAction(e -> runNow());
+    }
+
+    // For the Search and Clear buttons: no delay, and it runs even if the text is unchanged.
+    void runNow() {
+        pause.stop();
+        lastKeyword = keyword();
+        search.accept(lastKeyword);
+    }
+
+    private String keyword() {
+        return field.getText().trim();
+    }
+}
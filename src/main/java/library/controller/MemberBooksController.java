@@ -1,8 +1,6 @@
 package library.controller;
 
 import javafx.beans.property.SimpleStringProperty;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
@@ -11,16 +9,17 @@ import library.dao.LoanDao;
 import library.model.Book;
 import library.model.Loan;
 import library.model.Member;
+import library.search.CatalogIndex;
 
 import java.sql.SQLException;
 import java.time.LocalDate;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 
 public class MemberBooksController {
 
+    private static final int SEARCH_LIMIT = 200;
+
     @FXML
     private TableView<Book> booksTable;
 
@@ -54,9 +53,8 @@ public class MemberBooksController {
     private final BookDao bookDao = new BookDao();
     private final LoanDao loanDao = new LoanDao();
 
-    private final ObservableList<Book> bookList = FXCollections.observableArrayList();
-
-    private final Map<Integer, String> availabilityMap = new HashMap<>();
+    private final LazyPagedList<Book> bookList = new LazyPagedList<>(bookDao::getBooksPage);
+    private LiveSearch liveSearch;
 
     private Member loggedInMember;
 
@@ -70,11 +68,18 @@ public class MemberBooksController {
         // Availability custom factory
         availabilityColumn.setCellValueFactory(cellData -> {
             Book book = cellData.getValue();
-            String status = availabilityMap.getOrDefault(book.getId(), "Unknown");
+            if (book == null) {
+                return null;
+            }
+            String status = (book.getAvailableCopies() > 0) ? "Available" : "Not available";
             return new SimpleStringProperty(status);
         });
 
-        booksTable.setItems(bookList);
+        bookList.setOnError(e -> {
+            e.printStackTrace();
+            showError("Error loading books", e.getMessage());
+        });
+        bookList.bind(booksTable);
 
         booksTable.getSelectionModel().selectedItemProperty().addListener(
                 (obs, oldVal, newVal) -> updateSelectedBookLabel(newVal)
@@ -87,6 +92,9 @@ public class MemberBooksController {
                 (obs, oldVal, newVal) -> updateDueDateLabel()
         );
 
+        // Results while typing; the in-memory index answers prefixes without a full-text query.
+        liveSearch = new LiveSearch(searchField, this::search);
+
         loadAllBooks();
     }
 
@@ -95,24 +103,7 @@ public class MemberBooksController {
     }
 
     private void loadAllBooks() {
-        try {
-            List<Book> books = bookDao.getAllBooks();
-            recomputeAvailability(books);
-            bookList.setAll(books);
-        } catch (SQLException e) {
-            e.printStackTrace();
-            showError("Error loading books", e.getMessage());
-        }
-    }
-
-    private void recomputeAvailability(List<Book> books) throws SQLException {
-        availabilityMap.clear();
-        for (Book book : books) {
-            int activeLoans = loanDao.countActiveLoansForBook(book.getId());
-            int availableCopies = book.getCopyCount() - activeLoans;
-            String status = (availableCopies > 0) ? "Available" : "Not available";
-            availabilityMap.put(book.getId(), status);
-        }
+        bookList.reset();
     }
 
     private void updateSelectedBookLabel(Book book) {
@@ -137,26 +128,43 @@ public class MemberBooksController {
 
     @FXML
     private void handleSearch() {
-        String keyword = searchField.getText().trim();
+        liveSearch.runNow();
+    }
+
+    private void search(String keyword) {
         if (keyword.isEmpty()) {
             loadAllBooks();
             return;
         }
 
-        try {
-            List<Book> result = bookDao.searchBooks(keyword);
-            recomputeAvailability(result);
-            bookList.setAll(result);
-        } catch (SQLException e) {
-            e.printStackTrace();
-            showError("Search error", e.getMessage());
+        CatalogIndex index = CatalogIndex.getInstance();
+        if (index.isReady()) {
+            bookList.showSearch((offset, limit) -> {
+                // The index lists hits by id, not by relevance. A keyword with more
+                // hits than fit on one screen is paged by rank through the full-text
+                // index instead, so the best matches are never cut off.
+                int[] ids = index.search(keyword, SEARCH_LIMIT + 1);
+                if (ids.length > SEARCH_LIMIT) {
+                    return bookDao.searchBooks(keyword, offset, limit);
+                }
+                if (offset > 0) {
+                    return List.of();
+                }
+                if (ids.length > 0) {
+                    return bookDao.getBooksByIds(ids);
+                }
+                // Nothing matches as typed, so show close spellings instead.
+                return bookDao.getBooksInOrder(index.fuzzySearch(keyword, SEARCH_LIMIT));
+            });
+        } else {
+            bookList.showSearch((offset, limit) -> bookDao.searchBooks(keyword, offset, limit));
         }
     }
 
     @FXML
     private void handleClearSearch() {
         searchField.clear();
-        loadAllBooks();
+        liveSearch.runNow();
     }
 
     @FXML
@@ -172,8 +180,7 @@ public class MemberBooksController {
             return;
         }
 
-        String status = availabilityMap.getOrDefault(selected.getId(), "Not available");
-        if (!"Available".equalsIgnoreCase(status)) {
+        if (selected.getAvailableCopies() <= 0) {
             showError("Not available",
                     "This book is currently unavailable (all copies are on loan)..");
             return;
@@ -7,15 +7,14 @@ import javafx.scene.control.Label;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.cell.PropertyValueFactory;
-import library.dao.BookDao;
 import library.dao.LoanDao;
-import library.model.Book;
 import library.model.Loan;
+import library.model.LoanHistoryEntry;
 import library.model.Member;
 
-import java.sql.SQLException;
 import java.time.LocalDate;
-import java.util.*;
+import java.util.ArrayList;
+import java.util.List;
 
 public class MemberDetailController {
 
@@ -59,9 +58,11 @@ public class MemberDetailController {
     private TableColumn<LoanView, LocalDate> returnDateColumn;
 
     private final LoanDao loanDao = new LoanDao();
-    private final BookDao bookDao = new BookDao();
     private final ObservableList<LoanView> loanList = FXCollections.observableArrayList();
 
+    private final AsyncLoader historyLoader = new AsyncLoader();
+    private final AsyncLoader favoriteLoader = new AsyncLoader();
+
     private Member member;
 
     @FXML
@@ -94,44 +95,35 @@ public class MemberDetailController {
     private void loadLoanHistoryAndFavoriteCategory() {
         if (member == null) return;
 
-        try {
-            List<Loan> loans = loanDao.getLoansByMember(member.getId());
-            loanList.clear();
-
-            Map<String, Integer> categoryCount = new HashMap<>();
-
-            for (Loan loan : loans) {
-                Book book = bookDao.getBookById(loan.getBookId());
-                String title = (book != null) ? book.getTitle() : ("Book #" + loan.getBookId());
-                String category = (book != null && book.getCategory() != null)
-                        ? book.getCategory() : "Unknown";
-
-                categoryCount.put(category, categoryCount.getOrDefault(category, 0) + 1);
-
-                loanList.add(new LoanView(
-                        title,
-                        category,
-                        loan.getLoanDate(),
-                        loan.getDueDate(),
-                        loan.getReturnDate()
-                ));
-            }
-
-            String favorite = "-";
-            int max = 0;
-            for (Map.Entry<String, Integer> entry : categoryCount.entrySet()) {
-                if (entry.getValue() > max) {
-                    max = entry.getValue();
-                    favorite = entry.getKey();
-                }
-            }
-
-            favoriteCategoryLabel.setText(favorite);
-
-        } catch (SQLException e) {
-            e.printStackTrace();
-            favoriteCategoryLabel.setText("-");
+        int memberId = member.getId();
+        LocalDate today = LocalDate.now();
+
+        historyLoader.load(() -> toViews(loanDao.getLoanHistoryByMember(memberId, today)),
+                loanList::setAll, Throwable::printStackTrace);
+
+        favoriteLoader.load(() -> loanDao.getFavoriteCategory(memberId),
+                favorite -> favoriteCategoryLabel.setText(favorite != null ? favorite : "-"),
+                e -> {
+                    e.printStackTrace();
+                    favoriteCategoryLabel.setText("-");
+                });
+    }
+
+    private List<LoanView> toViews(List<LoanHistoryEntry> history) {
+        List<LoanView> views = new ArrayList<>(history.size());
+
+        for (LoanHistoryEntry entry : history) {
+            Loan loan = entry.getLoan();
+            views.add(new LoanView(
+                    entry.getBookTitle(),
+                    entry.getCategory(),
+                    loan.getLoanDate(),
+                    loan.getDueDate(),
+                    loan.getReturnDate()
+            ));
         }
+
+        return views;
     }
 
 
@@ -6,14 +6,13 @@ import javafx.fxml.FXML;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.cell.PropertyValueFactory;
-import library.dao.BookDao;
 import library.dao.LoanDao;
-import library.model.Book;
 import library.model.Loan;
+import library.model.LoanHistoryEntry;
 import library.model.Member;
 
-import java.sql.SQLException;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
 public class MemberMyBooksController {
@@ -42,7 +41,7 @@ public class MemberMyBooksController {
     private final ObservableList<LoanView> loanList = FXCollections.observableArrayList();
 
     private final LoanDao loanDao = new LoanDao();
-    private final BookDao bookDao = new BookDao();
+    private final AsyncLoader loansLoader = new AsyncLoader();
 
     private Member loggedInMember;
 
@@ -70,45 +69,29 @@ public class MemberMyBooksController {
             return;
         }
 
-        try {
-            List<Loan> loans = loanDao.getLoansByMember(loggedInMember.getId());
-            LocalDate today = LocalDate.now();
-
-            for (Loan loan : loans) {
-                Book book = bookDao.getBookById(loan.getBookId());
-                String title = (book != null) ? book.getTitle() : ("Book #" + loan.getBookId());
-                String category = (book != null && book.getCategory() != null)
-                        ? book.getCategory()
-                        : "Unknown";
-
-                LocalDate loanDate = loan.getLoanDate();
-                LocalDate dueDate = loan.getDueDate();
-                LocalDate returnDate = loan.getReturnDate();
-
-                String status;
-                if (returnDate == null) {
-                    if (dueDate != null && dueDate.isBefore(today)) {
-                        status = "Overdue";
-                    } else {
-                        status = "Active";
-                    }
-                } else {
-                    status = "Returned";
-                }
-
-                loanList.add(new LoanView(
-                        title,
-                        category,
-                        loanDate,
-                        dueDate,
-                        returnDate,
-                        status
-                ));
-            }
-
-        } catch (SQLException e) {
-            e.printStackTrace();
+        int memberId = loggedInMember.getId();
+        LocalDate today = LocalDate.now();
+
+        loansLoader.load(() -> toViews(loanDao.getLoanHistoryByMember(memberId, today)),
+                loanList::setAll, Throwable::printStackTrace);
+    }
+
+    private List<LoanView> toViews(List<LoanHistoryEntry> history) {
+        List<LoanView> views = new ArrayList<>(history.size());
+
+        for (LoanHistoryEntry entry : history) {
+            Loan loan = entry.getLoan();
+            views.add(new LoanView(
+                    entry.getBookTitle(),
+                    entry.getCategory(),
+                    loan.getLoanDate(),
+                    loan.getDueDate(),
+                    loan.getReturnDate(),
+                    entry.getStatus()
+            ));
         }
+
+        return views;
     }
 
 
@@ -1,57 +1,43 @@
 package library.dao;
 
 import library.model.Book;
+import library.search.CatalogIndex;
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 public class BookDao {
 
-
-    public void createTableIfNotExists() throws SQLException {
-        String sql = """
-                CREATE TABLE IF NOT EXISTS books (
-                    id          INTEGER PRIMARY KEY AUTOINCREMENT,
-                    title       TEXT NOT NULL,
-                    author      TEXT NOT NULL,
-                    isbn        TEXT NOT NULL UNIQUE,
-                    category    TEXT,
-                    copy_count  INTEGER NOT NULL
-                );
-                """;
-
-        try (Connection conn = DbConnection.getConnection();
-             Statement stmt = conn.createStatement()) {
-            stmt.execute(sql);
-        }
-    }
-
-
     public void insertBook(Book book) throws SQLException {
         String sql = """
-                INSERT INTO books(title, author, isbn, category, copy_count)
-                VALUES (?, ?, ?, ?, ?)
+                INSERT INTO books(title, author, isbn, category, copy_count, available_copies)
+                VALUES (?, ?, ?, ?, ?, ?)
                 """;
 
-        try (Connection conn = DbConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        DbConnection.write(conn -> {
+            try (PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
-            ps.setString(1, book.getTitle());
-            ps.setString(2, book.getAuthor());
-            ps.setString(3, book.getIsbn());
-            ps.setString(4, book.getCategory());
-            ps.setInt(5, book.getCopyCount());
+                ps.setString(1, book.getTitle());
+                ps.setString(2, book.getAuthor());
+                ps.setString(3, book.getIsbn());
+                ps.setString(4, book.getCategory());
+                ps.setInt(5, book.getCopyCount());
+                ps.setInt(6, book.getCopyCount());
 
-            ps.executeUpdate();
+                ps.executeUpdate();
 
-            try (ResultSet rs = ps.getGeneratedKeys()) {
-                if (rs.next()) {
-                    int generatedId = rs.getInt(1);
-                    book.setId(generatedId);
+                try (ResultSet rs = ps.getGeneratedKeys()) {
+                    if (rs.next()) {
+                        int generatedId = rs.getInt(1);
+                        book.setId(generatedId);
+                    }
                 }
             }
-        }
+        });
+        book.setAvailableCopies(book.getCopyCount());
+        CatalogIndex.getInstance().put(book);
     }
 
 
@@ -62,21 +48,69 @@ public class BookDao {
                        author = ?,
                        isbn = ?,
                        category = ?,
-                       copy_count = ?
+                       copy_count = ?,
+                       available_copies = available_copies + (? - copy_count)
                  WHERE id = ?
                 """;
 
-        try (Connection conn = DbConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+        DbConnection.write(conn -> {
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+
+                ps.setString(1, book.getTitle());
+                ps.setString(2, book.getAuthor());
+                ps.setString(3, book.getIsbn());
+                ps.setString(4, book.getCategory());
+                ps.setInt(5, book.getCopyCount());
+                ps.setInt(6, book.getCopyCount());
+                ps.setInt(7, book.getId());
+
+                ps.executeUpdate();
+            }
+        });
+        CatalogIndex.getInstance().put(book);
+    }
+
+
+    // Inserts or updates by ISBN on the caller's connection, sending the rows in
+    // JDBC batches. Copy count changes shift available_copies by the same amount.
+    // The FTS triggers index every row as it is written.
+    public void upsertBooks(Connection conn, List<Book> books, int batchSize) throws SQLException {
+        String sql = """
+                INSERT INTO books(title, author, isbn, category, copy_count, available_copies)
+                VALUES (?, ?, ?, ?, ?, ?)
+                ON CONFLICT(isbn) DO UPDATE
+                   SET title = excluded.title,
+                       author = excluded.author,
+                       category = excluded.category,
+                       copy_count = excluded.copy_count,
+                       available_copies = available_copies + (excluded.copy_count - copy_count)
+                 WHERE title IS NOT excluded.title
+                    OR author IS NOT excluded.author
+                    OR category IS NOT excluded.category
+                    OR copy_count IS NOT excluded.copy_count
+                """;
 
-            ps.setString(1, book.getTitle());
-            ps.setString(2, book.getAuthor());
-            ps.setString(3, book.getIsbn());
-            ps.setString(4, book.getCategory());
-            ps.setInt(5, book.getCopyCount());
-            ps.setInt(6, book.getId());
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            int pending = 0;
+
+            for (Book book : books) {
+                ps.setString(1, book.getTitle());
+                ps.setString(2, book.getAuthor());
+                ps.setString(3, book.getIsbn());
+                ps.setString(4, book.getCategory());
+                ps.setInt(5, book.getCopyCount());
+                ps.setInt(6, book.getCopyCount());
+                ps.addBatch();
+
+                if (++pending == batchSize) {
+                    ps.executeBatch();
+                    pending = 0;
+                }
+            }
 
-            ps.executeUpdate();
+            if (pending > 0) {
+                ps.executeBatch();
+            }
         }
     }
 
@@ -84,12 +118,13 @@ public class BookDao {
     public void deleteBook(int id) throws SQLException {
         String sql = "DELETE FROM books WHERE id = ?";
 
-        try (Connection conn = DbConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setInt(1, id);
-            ps.executeUpdate();
-        }
+        DbConnection.write(conn -> {
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setInt(1, id);
+                ps.executeUpdate();
+            }
+        });
+        CatalogIndex.getInstance().remove(id);
     }
 
 
@@ -131,6 +166,62 @@ public class BookDao {
     }
 
 
+    // Books with the given ids (e.g. hits from the catalog index), by title.
+    public List<Book> getBooksByIds(int[] ids) throws SQLException {
+        String sql = """
+                SELECT *
+                  FROM books
+                 WHERE id IN (SELECT value FROM json_each(?))
+                ORDER BY title ASC, id ASC
+                """;
+
+        return getBooksByIds(sql, ids);
+    }
+
+    // Books with the given ids in the order the ids are given, for hits
+    // that are already ranked.
+    public List<Book> getBooksInOrder(int[] ids) throws SQLException {
+        String sql = """
+                SELECT books.*
+                  FROM json_each(?) AS ids
+                  JOIN books ON books.id = ids.value
+                ORDER BY ids.key
+                """;
+
+        return getBooksByIds(sql, ids);
+    }
+
+    private List<Book> getBooksByIds(String sql, int[] ids) throws SQLException {
+        List<Book> books = new ArrayList<>();
+        if (ids.length == 0) {
+            return books;
+        }
+
+        StringBuilder json = new StringBuilder(ids.length * 6).append('[');
+        for (int i = 0; i < ids.length; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(ids[i]);
+        }
+        json.append(']');
+
+        try (Connection conn = DbConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, json.toString());
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    books.add(mapRowToBook(rs));
+                }
+            }
+        }
+
+        return books;
+    }
+
+
     public List<Book> getAllBooks() throws SQLException {
         String sql = "SELECT * FROM books ORDER BY title ASC";
 
@@ -149,26 +240,95 @@ public class BookDao {
     }
 
 
-    public List<Book> searchBooks(String keyword) throws SQLException {
+    // Streams hold a pooled connection until closed; use try-with-resources.
+    public Stream<Book> streamAllBooks() throws SQLException {
+        return streamAllBooks(QueryStream.DEFAULT_FETCH_SIZE);
+    }
+
+    public Stream<Book> streamAllBooks(int fetchSize) throws SQLException {
+        return QueryStream.open("SELECT * FROM books ORDER BY id ASC", fetchSize, this::mapRowToBook);
+    }
+
+
+    // Keyset page in (title, id) order: the rows after the given book, or the first page when null.
+    public List<Book> getBooksPage(Book after, int limit) throws SQLException {
         String sql = """
                 SELECT * FROM books
-                 WHERE title    LIKE ?
-                    OR author   LIKE ?
-                    OR isbn     LIKE ?
-                    OR category LIKE ?
-                ORDER BY title ASC
+                 WHERE (title, id) > (?, ?)
+                 ORDER BY title ASC, id ASC
+                 LIMIT ?
                 """;
 
         List<Book> books = new ArrayList<>();
-        String pattern = "%" + keyword + "%";
 
         try (Connection conn = DbConnection.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
 
-            ps.setString(1, pattern);
-            ps.setString(2, pattern);
-            ps.setString(3, pattern);
-            ps.setString(4, pattern);
+            ps.setString(1, after != null ? after.getTitle() : "");
+            ps.setInt(2, after != null ? after.getId() : 0);
+            ps.setInt(3, limit);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    books.add(mapRowToBook(rs));
+                }
+            }
+        }
+
+        return books;
+    }
+
+
+    // One page of search hits; a negative limit returns all of them.
+    // Best match first: an exact ISBN, then an exact title, then BM25 with
+    // title hits weighing more than author, ISBN and category hits. With a
+    // LIMIT the sorter only keeps the best offset + limit rows.
+    public List<Book> searchBooks(String keyword, int offset, int limit) throws SQLException {
+        try (Connection conn = DbConnection.getConnection()) {
+            return searchBooks(conn, keyword, offset, limit);
+        }
+    }
+
+    // The full-text index holds ISBNs split at their dashes, so a book whose
+    // ISBN equals the keyword without dashes or spaces is added to the hits.
+    List<Book> searchBooks(Connection conn, String keyword, int offset, int limit) throws SQLException {
+        String sql = """
+                WITH hits(id, score) AS (
+                    SELECT rowid, bm25(books_fts, 10.0, 5.0, 2.0, 1.0)
+                      FROM books_fts
+                     WHERE books_fts MATCH ?1
+                    UNION ALL
+                    SELECT id, 0.0
+                      FROM books
+                     WHERE replace(replace(isbn, '-', ''), ' ', '') = ?2
+                       AND NOT EXISTS (SELECT 1 FROM books_fts WHERE books_fts MATCH ?1 AND rowid = books.id)
+                )
+                SELECT books.*
+                  FROM hits
+                  JOIN books ON books.id = hits.id
+                ORDER BY CASE
+                             WHEN replace(replace(books.isbn, '-', ''), ' ', '') = ?2 THEN 0
+                             WHEN books.title = ?3 COLLATE NOCASE THEN 1
+                             ELSE 2
+                         END,
+                         hits.score,
+                         books.title ASC,
+                         books.id ASC
+                LIMIT ?4 OFFSET ?5
+                """;
+
+        List<Book> books = new ArrayList<>();
+        String query = FtsQuery.prefixQuery(keyword);
+        if (query == null) {
+            return books;
+        }
+
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, query);
+            ps.setString(2, keyword.replaceAll("[\\s-]", ""));
+            ps.setString(3, keyword.strip());
+            ps.setInt(4, limit);
+            ps.setInt(5, offset);
 
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
@@ -189,6 +349,7 @@ public class BookDao {
         book.setIsbn(rs.getString("isbn"));
         book.setCategory(rs.getString("category"));
         book.setCopyCount(rs.getInt("copy_count"));
+        book.setAvailableCopies(rs.getInt("available_copies"));
         return book;
     }
 }
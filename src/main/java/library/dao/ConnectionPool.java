@@ -0,0 +1,254 @@
+package library.dao;
+
+import org.sqlite.ProgressHandler;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ConnectionPool {
+
+    private static final String[] PRAGMAS = {
+            "PRAGMA journal_mode = WAL",
+            "PRAGMA synchronous = NORMAL",
+            "PRAGMA mmap_size = 268435456",
+            "PRAGMA cache_size = -20000",
+            "PRAGMA busy_timeout = 5000",
+            "PRAGMA temp_store = MEMORY"
+    };
+
+    private static final int STATEMENT_CACHE_SIZE = 64;
+
+    // SQLite virtual machine steps between checks for a cancelled task.
+    private static final int CANCEL_CHECK_STEPS = 100_000;
+
+    private final String url;
+    private final int maxSize;
+    private final long acquireTimeoutMillis;
+
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<Pooled> idle = new LinkedBlockingDeque<>();
+
+    private final AtomicInteger created = new AtomicInteger();
+    private final AtomicInteger inUse = new AtomicInteger();
+    private final AtomicLong acquisitions = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong statementHits = new AtomicLong();
+    private final AtomicLong statementMisses = new AtomicLong();
+
+    private volatile boolean closed;
+
+    public ConnectionPool(String url, int maxSize, long acquireTimeoutMillis) {
+        this.url = url;
+        this.maxSize = maxSize;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    public Connection acquire() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool has been shut down.");
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out after " + acquireTimeoutMillis
+                        + " ms waiting for a database connection.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection.", e);
+        }
+        recordWait(System.nanoTime() - start);
+
+        Pooled pooled = idle.pollFirst();
+        try {
+            if (pooled == null) {
+                pooled = openPhysical();
+            }
+        } catch (SQLException e) {
+            permits.release();
+            throw e;
+        }
+
+        inUse.incrementAndGet();
+        return wrap(pooled);
+    }
+
+    public PoolStats getStats() {
+        long count = acquisitions.get();
+        return new PoolStats(
+                maxSize,
+                created.get(),
+                inUse.get(),
+                idle.size(),
+                count,
+                TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.get()),
+                TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get()),
+                statementHits.get(),
+                statementMisses.get()
+        );
+    }
+
+    public void shutdown() {
+        closed = true;
+        Pooled pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            closeQuietly(pooled);
+        }
+    }
+
+    private Pooled openPhysical() throws SQLException {
+        Connection physical = DriverManager.getConnection(url);
+        try (Statement stmt = physical.createStatement()) {
+            for (String pragma : PRAGMAS) {
+                stmt.execute(pragma);
+            }
+            // Statement.cancel() would be sqlite3_interrupt(), which stays pending
+            // while any cached statement on the connection is unreset and then fails
+            // the next caller's queries too. A progress handler aborts only the
+            // statement of the task that was cancelled.
+            ProgressHandler.setHandler(physical, CANCEL_CHECK_STEPS, new ProgressHandler() {
+                @Override
+                protected int progress() {
+                    return DbExecutor.isCurrentTaskCancelled() ? 1 : 0;
+                }
+            });
+        } catch (SQLException e) {
+            physical.close();
+            throw e;
+        }
+        created.incrementAndGet();
+        return new Pooled(physical, new StatementCache(
+                physical, STATEMENT_CACHE_SIZE, statementHits, statementMisses));
+    }
+
+    private void release(Pooled pooled) {
+        Connection physical = pooled.physical;
+        boolean reusable = !closed;
+        try {
+            if (physical.isClosed()) {
+                reusable = false;
+            } else if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            reusable = false;
+        }
+
+        inUse.decrementAndGet();
+        if (reusable) {
+            idle.offerFirst(pooled);
+        } else {
+            created.decrementAndGet();
+            closeQuietly(pooled);
+        }
+        permits.release();
+    }
+
+    private void recordWait(long nanos) {
+        acquisitions.incrementAndGet();
+        totalWaitNanos.addAndGet(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    private Connection wrap(Pooled pooled) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new Handle(pooled)
+        );
+    }
+
+    private static void closeQuietly(Pooled pooled) {
+        pooled.statements.closeAll();
+        try {
+            pooled.physical.close();
+        } catch (SQLException ignored) {
+        }
+    }
+
+    private static class Pooled {
+
+        private final Connection physical;
+        private final StatementCache statements;
+
+        Pooled(Connection physical, StatementCache statements) {
+            this.physical = physical;
+            this.statements = statements;
+        }
+    }
+
+    // One handle per acquire, so a stale reference cannot touch a connection
+    // that has already gone back to the pool.
+    private class Handle implements InvocationHandler {
+
+        private Pooled pooled;
+
+        Handle(Pooled pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (pooled != null) {
+                        Pooled toRelease = pooled;
+                        pooled = null;
+                        release(toRelease);
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return pooled == null || pooled.physical.isClosed();
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "PooledConnection[" + (pooled == null ? "released" : pooled.physical) + "]";
+                }
+                default -> {
+                    if (pooled == null) {
+                        throw new SQLException("Connection has already been returned to the pool.");
+                    }
+                    if (isCacheablePrepare(method, args)) {
+                        int keys = args.length == 2 ? (Integer) args[1] : Statement.NO_GENERATED_KEYS;
+                        return pooled.statements.prepare((Connection) proxy, (String) args[0], keys);
+                    }
+                    try {
+                        return method.invoke(pooled.physical, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                }
+            }
+        }
+
+        private boolean isCacheablePrepare(Method method, Object[] args) {
+            if (!method.getName().equals("prepareStatement") || args == null) {
+                return false;
+            }
+            Class<?>[] types = method.getParameterTypes();
+            return types.length == 1
+                    || (types.length == 2 && types[1] == int.class);
+        }
+    }
+}
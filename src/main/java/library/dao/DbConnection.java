@@ -1,13 +1,18 @@
 package library.dao;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 public class DbConnection {
 
     private static final String URL = "jdbc:sqlite:library.db";
 
+    // WAL lets readers run next to the single writer, so a few connections are enough.
+    private static final int POOL_SIZE = 4;
+    private static final long ACQUIRE_TIMEOUT_MILLIS = 30_000;
+
     static {
         try {
             Class.forName("org.sqlite.JDBC");
@@ -16,7 +21,52 @@ public class DbConnection {
         }
     }
 
+    private static final ConnectionPool POOL = new ConnectionPool(URL, POOL_SIZE, ACQUIRE_TIMEOUT_MILLIS);
+    private static final WriteQueue WRITES = new WriteQueue();
+
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(URL);
+        return POOL.acquire();
+    }
+
+    // Queues the work for the single writer and returns once its group has committed.
+    public static void write(SqlWork work) throws SQLException {
+        await(WRITES.submit(work));
+    }
+
+    // Like write(), but the work commits on its own instead of in a group.
+    // For bulk writes such as import chunks.
+    public static void writeExclusive(SqlWork work) throws SQLException {
+        await(WRITES.submitExclusive(work));
+    }
+
+    public static CompletableFuture<Void> submitWrite(SqlWork work) {
+        return WRITES.submit(work);
+    }
+
+    public static PoolStats getPoolStats() {
+        return POOL.getStats();
+    }
+
+    public static WriteStats getWriteStats() {
+        return WRITES.getStats();
+    }
+
+    private static void await(CompletableFuture<Void> result) throws SQLException {
+        try {
+            result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a write to commit.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            throw new SQLException(e.getCause());
+        }
+    }
+
+    public static void shutdown() {
+        WRITES.shutdown();
+        POOL.shutdown();
     }
 }
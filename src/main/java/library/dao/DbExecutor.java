@@ -0,0 +1,63 @@
+package library.dao;
+
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Runs DAO calls on virtual threads so callers (mostly the FX thread) never
+// block on the database. Concurrency is still bounded by the connection pool.
+public final class DbExecutor {
+
+    private static final ExecutorService EXECUTOR =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("db-", 0).factory());
+
+    // Set while a submitted task runs; true once its future has been cancelled.
+    private static final ThreadLocal<AtomicBoolean> CANCELLED = new ThreadLocal<>();
+
+    private DbExecutor() {
+    }
+
+    // Cancelling the returned future interrupts the call if it is still
+    // waiting for a connection and aborts the statement it is running, so a
+    // superseded search stops instead of running to the end.
+    public static <T> CompletableFuture<T> submit(SqlCall<T> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicBoolean cancelled = new AtomicBoolean();
+
+        Future<?> task = EXECUTOR.submit(() -> {
+            if (result.isDone()) {
+                return;
+            }
+            CANCELLED.set(cancelled);
+            try {
+                result.complete(call.call());
+            } catch (SQLException | RuntimeException e) {
+                result.completeExceptionally(e);
+            } finally {
+                CANCELLED.remove();
+            }
+        });
+
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                cancelled.set(true);
+                task.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    // Polled by the pool's progress handler on the thread running a statement.
+    // Outside a submitted task (e.g. on the writer thread) it is always false.
+    static boolean isCurrentTaskCancelled() {
+        AtomicBoolean cancelled = CANCELLED.get();
+        return cancelled != null && cancelled.get();
+    }
+
+    public static void shutdown() {
+        EXECUTOR.shutdownNow();
+    }
+}
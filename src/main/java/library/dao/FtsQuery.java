@@ -0,0 +1,42 @@
+package library.dao;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+// Turns free text typed by a user into a safe FTS5 MATCH expression.
+final class FtsQuery {
+
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("\\s+");
+    private static final Pattern NON_TOKEN = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private FtsQuery() {
+    }
+
+    // Every word must match as a prefix. A word with inner punctuation
+    // ("978-0-13") becomes a prefix phrase so its parts stay adjacent.
+    // Returns null when the text contains nothing searchable.
+    static String prefixQuery(String text) {
+        List<String> terms = new ArrayList<>();
+
+        for (String word : WORD_SEPARATOR.split(text.strip())) {
+            List<String> tokens = tokens(word);
+            if (!tokens.isEmpty()) {
+                terms.add("\"" + String.join(" ", tokens) + "\"*");
+            }
+        }
+
+        return terms.isEmpty() ? null : String.join(" ", terms);
+    }
+
+    static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : NON_TOKEN.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
@@ -7,22 +7,6 @@ import java.sql.*;
 public class LibrarianDao {
 
 
-    public void createTableIfNotExists() throws SQLException {
-        String sql = """
-                CREATE TABLE IF NOT EXISTS librarians (
-                    id        INTEGER PRIMARY KEY AUTOINCREMENT,
-                    username  TEXT NOT NULL UNIQUE,
-                    password  TEXT NOT NULL
-                );
-                """;
-
-        try (Connection conn = DbConnection.getConnection();
-             Statement stmt = conn.createStatement()) {
-            stmt.execute(sql);
-        }
-    }
-
-
     public void insertLibrarian(Librarian librarian) throws SQLException {
         String sql = """
                 INSERT INTO librarians(username, password)
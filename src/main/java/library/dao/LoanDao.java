@@ -1,33 +1,22 @@
 package library.dao;
 
+import library.model.Book;
 import library.model.Loan;
+import library.model.LoanHistoryEntry;
+import library.model.Member;
+import library.model.OverdueLoan;
+import library.model.TopEntry;
+import library.util.IntIntMap;
+
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 public class LoanDao {
 
-    public void createTableIfNotExists() throws SQLException {
-        String sql = """
-                CREATE TABLE IF NOT EXISTS loans (
-                    id          INTEGER PRIMARY KEY AUTOINCREMENT,
-                    book_id     INTEGER NOT NULL,
-                    member_id   INTEGER NOT NULL,
-                    loan_date   DATE NOT NULL,
-                    due_date    DATE NOT NULL,
-                    return_date DATE,
-                    FOREIGN KEY (book_id)  REFERENCES books(id),
-                    FOREIGN KEY (member_id) REFERENCES members(id)
-                );
-                """;
-
-        try (Connection conn = DbConnection.getConnection();
-             Statement stmt = conn.createStatement()) {
-            stmt.execute(sql);
-        }
-    }
-
+    private static final int BULK_COUNT_SCAN_THRESHOLD = 1000;
 
     public void insertLoan(Loan loan) throws SQLException {
         String sql = """
@@ -35,45 +24,76 @@ public class LoanDao {
                 VALUES (?, ?, ?, ?, ?)
                 """;
 
-        try (Connection conn = DbConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        DbConnection.write(conn -> {
+            if (loan.getReturnDate() == null) {
+                takeCopy(conn, loan.getBookId());
+            }
 
-            ps.setInt(1, loan.getBookId());
-            ps.setInt(2, loan.getMemberId());
-            ps.setDate(3, Date.valueOf(loan.getLoanDate()));
-            ps.setDate(4, Date.valueOf(loan.getDueDate()));
+            try (PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
-            if (loan.getReturnDate() != null) {
-                ps.setDate(5, Date.valueOf(loan.getReturnDate()));
-            } else {
-                ps.setNull(5, Types.DATE);
-            }
+                ps.setInt(1, loan.getBookId());
+                ps.setInt(2, loan.getMemberId());
+                setDay(ps, 3, loan.getLoanDate());
+                setDay(ps, 4, loan.getDueDate());
+                setDay(ps, 5, loan.getReturnDate());
 
-            ps.executeUpdate();
+                ps.executeUpdate();
 
-            try (ResultSet rs = ps.getGeneratedKeys()) {
-                if (rs.next()) {
-                    loan.setId(rs.getInt(1));
+                try (ResultSet rs = ps.getGeneratedKeys()) {
+                    if (rs.next()) {
+                        loan.setId(rs.getInt(1));
+                    }
                 }
             }
-        }
+        });
     }
 
 
     public void markAsReturned(int loanId, LocalDate returnDate) throws SQLException {
+        String returnCopySql = """
+                UPDATE books
+                   SET available_copies = available_copies + 1
+                 WHERE id = (SELECT book_id FROM loans WHERE id = ? AND return_date IS NULL)
+                """;
+
         String sql = """
                 UPDATE loans
                    SET return_date = ?
                  WHERE id = ?
                 """;
 
-        try (Connection conn = DbConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+        DbConnection.write(conn -> {
+            // Must run before return_date is set, while the loan still counts as active.
+            try (PreparedStatement ps = conn.prepareStatement(returnCopySql)) {
+                ps.setInt(1, loanId);
+                ps.executeUpdate();
+            }
+
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+
+                setDay(ps, 1, returnDate);
+                ps.setInt(2, loanId);
+
+                ps.executeUpdate();
+            }
+        });
+    }
+
 
-            ps.setDate(1, Date.valueOf(returnDate));
-            ps.setInt(2, loanId);
+    private void takeCopy(Connection conn, int bookId) throws SQLException {
+        String sql = """
+                UPDATE books
+                   SET available_copies = available_copies - 1
+                 WHERE id = ?
+                   AND available_copies > 0
+                """;
 
-            ps.executeUpdate();
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, bookId);
+
+            if (ps.executeUpdate() == 0) {
+                throw new SQLException("No copies of book #" + bookId + " are available for loan.");
+            }
         }
     }
 
@@ -163,6 +183,76 @@ public class LoanDao {
     }
 
 
+    // A member's loans with book title, category and status, newest first.
+    public List<LoanHistoryEntry> getLoanHistoryByMember(int memberId, LocalDate today) throws SQLException {
+        String sql = """
+                SELECT l.*,
+                       COALESCE(b.title, 'Book #' || l.book_id) AS book_title,
+                       COALESCE(b.category, 'Unknown')         AS book_category,
+                       CASE
+                           WHEN l.return_date IS NOT NULL THEN 'Returned'
+                           WHEN l.due_date < ?            THEN 'Overdue'
+                           ELSE 'Active'
+                       END AS status
+                  FROM loans l
+                  LEFT JOIN books b ON b.id = l.book_id
+                 WHERE l.member_id = ?
+                 ORDER BY l.loan_date DESC
+                """;
+
+        List<LoanHistoryEntry> list = new ArrayList<>();
+
+        try (Connection conn = DbConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            setDay(ps, 1, today);
+            ps.setInt(2, memberId);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(new LoanHistoryEntry(
+                            mapRowToLoan(rs),
+                            rs.getString("book_title"),
+                            rs.getString("book_category"),
+                            rs.getString("status")
+                    ));
+                }
+            }
+        }
+
+        return list;
+    }
+
+
+    // The category a member borrows most, or null when they have no loans.
+    public String getFavoriteCategory(int memberId) throws SQLException {
+        String sql = """
+                SELECT COALESCE(b.category, 'Unknown') AS category,
+                       COUNT(*) AS cnt
+                  FROM loans l
+                  LEFT JOIN books b ON b.id = l.book_id
+                 WHERE l.member_id = ?
+                 GROUP BY 1
+                 ORDER BY cnt DESC, category ASC
+                 LIMIT 1
+                """;
+
+        try (Connection conn = DbConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setInt(1, memberId);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getString("category");
+                }
+            }
+        }
+
+        return null;
+    }
+
+
     public List<Loan> getOverdueLoans(LocalDate today) throws SQLException {
         String sql = """
                 SELECT * FROM loans
@@ -175,7 +265,7 @@ public class LoanDao {
         try (Connection conn = DbConnection.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
 
-            ps.setDate(1, Date.valueOf(today));
+            setDay(ps, 1, today);
 
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
@@ -188,20 +278,116 @@ public class LoanDao {
     }
 
     public List<Loan> getOverdueLoans2() throws SQLException {
-        String sql = "SELECT * FROM loans WHERE return_date IS NULL";
+        return getOverdueLoans(LocalDate.now());
+    }
+
+
+    // Loans issued from 'from' up to, but not including, 'to'.
+    public List<Loan> getLoansIssuedBetween(LocalDate from, LocalDate to) throws SQLException {
+        String sql = """
+                SELECT * FROM loans
+                 WHERE loan_date >= ?
+                   AND loan_date < ?
+                 ORDER BY loan_date ASC, id ASC
+                """;
+
         List<Loan> list = new ArrayList<>();
-        LocalDate today = LocalDate.now();
 
         try (Connection conn = DbConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
+             PreparedStatement ps = conn.prepareStatement(sql)) {
 
-            while (rs.next()) {
-                Loan loan = mapRowToLoan(rs);
-                LocalDate due = loan.getDueDate();
+            setDay(ps, 1, from);
+            setDay(ps, 2, to);
 
-                if (due != null && due.isBefore(today)) {
-                    list.add(loan);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(mapRowToLoan(rs));
+                }
+            }
+        }
+
+        return list;
+    }
+
+
+    // Overdue loans already joined with the book and member shown on the
+    // overdue screen, most overdue first. Member passwords are not loaded.
+    public List<OverdueLoan> getOverdueLoanDetails(LocalDate today) throws SQLException {
+        String sql = """
+                SELECT l.id, l.book_id, l.member_id, l.loan_date, l.due_date, l.return_date,
+                       ? - l.due_date AS days_overdue,
+                       b.id       AS b_id,
+                       b.title    AS b_title,
+                       b.category AS b_category,
+                       m.id           AS m_id,
+                       m.name         AS m_name,
+                       m.surname      AS m_surname,
+                       m.username     AS m_username,
+                       m.phone        AS m_phone,
+                       m.email        AS m_email,
+                       m.home_address AS m_home_address
+                  FROM loans l
+                  LEFT JOIN books b   ON b.id = l.book_id
+                  LEFT JOIN members m ON m.id = l.member_id
+                 WHERE l.due_date < ?
+                   AND l.return_date IS NULL
+                 ORDER BY l.due_date ASC, l.id ASC
+                """;
+
+        List<OverdueLoan> list = new ArrayList<>();
+
+        try (Connection conn = DbConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            setDay(ps, 1, today);
+            setDay(ps, 2, today);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(mapRowToOverdueLoan(rs));
+                }
+            }
+        }
+
+        return list;
+    }
+
+
+    public List<TopEntry> getTopAuthors(int limit) throws SQLException {
+        return getTopByBookColumn("author", limit);
+    }
+
+
+    public List<TopEntry> getTopCategories(int limit) throws SQLException {
+        return getTopByBookColumn("category", limit);
+    }
+
+
+    // Loans are counted per book first (a scan of the book_id index), then
+    // rolled up by the book column; only the top rows leave the database.
+    private List<TopEntry> getTopByBookColumn(String column, int limit) throws SQLException {
+        String sql = """
+                SELECT COALESCE(NULLIF(TRIM(b.%s), ''), 'Unknown') AS name,
+                       SUM(l.cnt) AS cnt
+                  FROM (SELECT book_id, COUNT(*) AS cnt
+                          FROM loans
+                         GROUP BY book_id) l
+                  JOIN books b ON b.id = l.book_id
+                 GROUP BY 1
+                 ORDER BY cnt DESC, name ASC
+                 LIMIT ?
+                """.formatted(column);
+
+        List<TopEntry> list = new ArrayList<>();
+
+        try (Connection conn = DbConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setInt(1, limit);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(new TopEntry(rs.getString("name"), rs.getInt("cnt")));
                 }
             }
         }
@@ -234,27 +420,136 @@ public class LoanDao {
     }
 
 
+    // Active-loan counts for many books in one query. Books without active
+    // loans are absent from the map (read them with getOrDefault(id, 0)).
+    public IntIntMap countActiveLoansForBooks(int[] bookIds) throws SQLException {
+        IntIntMap counts = new IntIntMap(bookIds.length);
+        if (bookIds.length == 0) {
+            return counts;
+        }
+
+        if (bookIds.length > BULK_COUNT_SCAN_THRESHOLD) {
+            countAllActiveLoans(bookIds, counts);
+        } else {
+            countActiveLoansIn(bookIds, counts);
+        }
+        return counts;
+    }
+
+
+    private void countActiveLoansIn(int[] bookIds, IntIntMap counts) throws SQLException {
+        String sql = """
+                SELECT book_id, COUNT(*) AS cnt
+                  FROM loans
+                 WHERE book_id IN (SELECT value FROM json_each(?))
+                   AND return_date IS NULL
+                 GROUP BY book_id
+                """;
+
+        StringBuilder ids = new StringBuilder(bookIds.length * 6).append('[');
+        for (int i = 0; i < bookIds.length; i++) {
+            if (i > 0) {
+                ids.append(',');
+            }
+            ids.append(bookIds[i]);
+        }
+        ids.append(']');
+
+        try (Connection conn = DbConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, ids.toString());
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    counts.put(rs.getInt("book_id"), rs.getInt("cnt"));
+                }
+            }
+        }
+    }
+
+
+    // For large id sets one pass over the active-loan index beats thousands of lookups.
+    private void countAllActiveLoans(int[] bookIds, IntIntMap counts) throws SQLException {
+        String sql = """
+                SELECT book_id, COUNT(*) AS cnt
+                  FROM loans
+                 WHERE return_date IS NULL
+                 GROUP BY book_id
+                """;
+
+        IntIntMap wanted = new IntIntMap(bookIds.length);
+        for (int id : bookIds) {
+            wanted.put(id, 1);
+        }
+
+        try (Connection conn = DbConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+
+            while (rs.next()) {
+                int bookId = rs.getInt("book_id");
+                if (wanted.containsKey(bookId)) {
+                    counts.put(bookId, rs.getInt("cnt"));
+                }
+            }
+        }
+    }
+
+
+    private OverdueLoan mapRowToOverdueLoan(ResultSet rs) throws SQLException {
+        Loan loan = mapRowToLoan(rs);
+
+        Book book = null;
+        if (rs.getObject("b_id") != null) {
+            book = new Book();
+            book.setId(rs.getInt("b_id"));
+            book.setTitle(rs.getString("b_title"));
+            book.setCategory(rs.getString("b_category"));
+        }
+
+        Member member = null;
+        if (rs.getObject("m_id") != null) {
+            member = new Member();
+            member.setId(rs.getInt("m_id"));
+            member.setName(rs.getString("m_name"));
+            member.setSurname(rs.getString("m_surname"));
+            member.setUsername(rs.getString("m_username"));
+            member.setPhone(rs.getString("m_phone"));
+            member.setEmail(rs.getString("m_email"));
+            member.setHomeAddress(rs.getString("m_home_address"));
+        }
+
+        return new OverdueLoan(loan, book, member, rs.getLong("days_overdue"));
+    }
+
+
     private Loan mapRowToLoan(ResultSet rs) throws SQLException {
         Loan loan = new Loan();
         loan.setId(rs.getInt("id"));
         loan.setBookId(rs.getInt("book_id"));
         loan.setMemberId(rs.getInt("member_id"));
 
-        Date loanDate = rs.getDate("loan_date");
-        Date dueDate = rs.getDate("due_date");
-        Date returnDate = rs.getDate("return_date");
+        loan.setLoanDate(getDay(rs, "loan_date"));
+        loan.setDueDate(getDay(rs, "due_date"));
+        loan.setReturnDate(getDay(rs, "return_date"));
 
-        if (loanDate != null) {
-            loan.setLoanDate(loanDate.toLocalDate());
-        }
-        if (dueDate != null) {
-            loan.setDueDate(dueDate.toLocalDate());
-        }
-        if (returnDate != null) {
-            loan.setReturnDate(returnDate.toLocalDate());
+        return loan;
+    }
+
+
+    // Loan dates are stored as days since 1970-01-01 (see migration V9).
+    private static void setDay(PreparedStatement ps, int index, LocalDate date) throws SQLException {
+        if (date != null) {
+            ps.setLong(index, date.toEpochDay());
+        } else {
+            ps.setNull(index, Types.INTEGER);
         }
+    }
 
-        return loan;
+    private static LocalDate getDay(ResultSet rs, String column) throws SQLException {
+        long day = rs.getLong(column);
+        return rs.wasNull() ? null : LocalDate.ofEpochDay(day);
     }
 
 
@@ -275,5 +570,24 @@ public class LoanDao {
         return list;
     }
 
+
+    // Streams hold a pooled connection until closed; use try-with-resources.
+    public Stream<Loan> streamAllLoans() throws SQLException {
+        return streamAllLoans(QueryStream.DEFAULT_FETCH_SIZE);
+    }
+
+    public Stream<Loan> streamAllLoans(int fetchSize) throws SQLException {
+        return QueryStream.open("SELECT * FROM loans ORDER BY id ASC", fetchSize, this::mapRowToLoan);
+    }
+
+    public Stream<Loan> streamActiveLoans() throws SQLException {
+        return streamActiveLoans(QueryStream.DEFAULT_FETCH_SIZE);
+    }
+
+    public Stream<Loan> streamActiveLoans(int fetchSize) throws SQLException {
+        return QueryStream.open("SELECT * FROM loans WHERE return_date IS NULL ORDER BY id ASC",
+                fetchSize, this::mapRowToLoan);
+    }
+
 }
 
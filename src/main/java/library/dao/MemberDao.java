@@ -3,31 +3,17 @@ package library.dao;
 import library.model.Member;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 public class MemberDao {
 
-
-    public void createTableIfNotExists() throws SQLException {
-        String sql = """
-                CREATE TABLE IF NOT EXISTS members (
-                    id           INTEGER PRIMARY KEY AUTOINCREMENT,
-                    name         TEXT NOT NULL,
-                    surname      TEXT NOT NULL,
-                    username     TEXT NOT NULL UNIQUE,
-                    password     TEXT NOT NULL,
-                    phone        TEXT NOT NULL,
-                    email        TEXT NOT NULL,
-                    home_address TEXT
-                );
-                """;
-
-        try (Connection conn = DbConnection.getConnection();
-             Statement stmt = conn.createStatement()) {
-            stmt.execute(sql);
-        }
-    }
-
+    private static final int MIN_PHONE_TOKEN = 3;
+    private static final Pattern PHONE_LIKE = Pattern.compile("[0-9\\s()+.\\-/]+");
 
     public void createMember(Member member) throws SQLException {
         String sql = """
@@ -35,30 +21,33 @@ public class MemberDao {
                 VALUES (?, ?, ?, ?, ?, ?, ?)
                 """;
 
-        try (Connection conn = DbConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
-            ps.setString(1, member.getName());
-            ps.setString(2, member.getSurname());
-            ps.setString(3, member.getUsername());
-            ps.setString(4, member.getPassword());
-            ps.setString(5, member.getPhone());
-            ps.setString(6, member.getEmail());
-
-            if (member.getHomeAddress() != null && !member.getHomeAddress().isBlank()) {
-                ps.setString(7, member.getHomeAddress());
-            } else {
-                ps.setNull(7, Types.VARCHAR);
-            }
+        DbConnection.write(conn -> {
+            try (PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
-            ps.executeUpdate();
+                ps.setString(1, member.getName());
+                ps.setString(2, member.getSurname());
+                ps.setString(3, member.getUsername());
+                ps.setString(4, member.getPassword());
+                ps.setString(5, member.getPhone());
+                ps.setString(6, member.getEmail());
 
-            try (ResultSet rs = ps.getGeneratedKeys()) {
-                if (rs.next()) {
-                    member.setId(rs.getInt(1));
+                if (member.getHomeAddress() != null && !member.getHomeAddress().isBlank()) {
+                    ps.setString(7, member.getHomeAddress());
+                } else {
+                    ps.setNull(7, Types.VARCHAR);
+                }
+
+                ps.executeUpdate();
+
+                try (ResultSet rs = ps.getGeneratedKeys()) {
+                    if (rs.next()) {
+                        member.setId(rs.getInt(1));
+                    }
                 }
             }
-        }
+
+            indexMember(conn, member);
+        });
     }
 
 
@@ -77,6 +66,80 @@ public class MemberDao {
     }
 
 
+    // Every taken username, for duplicate checks during a bulk import.
+    public Set<String> getAllUsernames() throws SQLException {
+        Set<String> usernames = new HashSet<>();
+
+        try (Connection conn = DbConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement("SELECT username FROM members");
+             ResultSet rs = ps.executeQuery()) {
+
+            while (rs.next()) {
+                usernames.add(rs.getString(1));
+            }
+        }
+
+        return usernames;
+    }
+
+
+    // Bulk insert on the caller's connection (inside a transaction). The search
+    // index rows find their member by username, since batches return no keys.
+    public void insertMembers(Connection conn, List<Member> members, int batchSize) throws SQLException {
+        String sql = """
+                INSERT INTO members(name, surname, username, password, phone, email, home_address)
+                VALUES (?, ?, ?, ?, ?, ?, ?)
+                """;
+
+        String indexSql = """
+                INSERT INTO members_fts(rowid, name, surname, username, phone, email, home_address)
+                VALUES ((SELECT id FROM members WHERE username = ?), ?, ?, ?, ?, ?, ?)
+                """;
+
+        try (PreparedStatement ps = conn.prepareStatement(sql);
+             PreparedStatement index = conn.prepareStatement(indexSql)) {
+
+            int pending = 0;
+
+            for (Member member : members) {
+                String address = member.getHomeAddress();
+                if (address != null && address.isBlank()) {
+                    address = null;
+                }
+
+                ps.setString(1, member.getName());
+                ps.setString(2, member.getSurname());
+                ps.setString(3, member.getUsername());
+                ps.setString(4, member.getPassword());
+                ps.setString(5, member.getPhone());
+                ps.setString(6, member.getEmail());
+                ps.setString(7, address);
+                ps.addBatch();
+
+                index.setString(1, member.getUsername());
+                index.setString(2, member.getName());
+                index.setString(3, member.getSurname());
+                index.setString(4, member.getUsername());
+                index.setString(5, phoneTokens(member.getPhone()));
+                index.setString(6, member.getEmail() == null ? null : member.getEmail().toLowerCase(Locale.ROOT));
+                index.setString(7, address);
+                index.addBatch();
+
+                if (++pending == batchSize) {
+                    ps.executeBatch();
+                    index.executeBatch();
+                    pending = 0;
+                }
+            }
+
+            if (pending > 0) {
+                ps.executeBatch();
+                index.executeBatch();
+            }
+        }
+    }
+
+
     public Member findByUsernameAndPassword(String username, String password) throws SQLException {
         String sql = "SELECT * FROM members WHERE username = ? AND password = ?";
 
@@ -134,30 +197,74 @@ public class MemberDao {
     }
 
 
+    // Streams hold a pooled connection until closed; use try-with-resources.
+    public Stream<Member> streamAllMembers() throws SQLException {
+        return streamAllMembers(QueryStream.DEFAULT_FETCH_SIZE);
+    }
+
+    public Stream<Member> streamAllMembers(int fetchSize) throws SQLException {
+        return QueryStream.open("SELECT * FROM members ORDER BY id ASC", fetchSize, this::mapRowToMember);
+    }
+
+
+    // Keyset page in (surname, name, id) order: the rows after the given member, or the first page when null.
+    public List<Member> getMembersPage(Member after, int limit) throws SQLException {
+        String sql = """
+                SELECT * FROM members
+                 WHERE (surname, name, id) > (?, ?, ?)
+                 ORDER BY surname ASC, name ASC, id ASC
+                 LIMIT ?
+                """;
+
+        List<Member> list = new ArrayList<>();
+
+        try (Connection conn = DbConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, after != null ? after.getSurname() : "");
+            ps.setString(2, after != null ? after.getName() : "");
+            ps.setInt(3, after != null ? after.getId() : 0);
+            ps.setInt(4, limit);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(mapRowToMember(rs));
+                }
+            }
+        }
+
+        return list;
+    }
+
+
     public List<Member> searchMembers(String keyword) throws SQLException {
+        return searchMembers(keyword, 0, -1);
+    }
+
+
+    // One page of search hits; a negative limit returns all of them.
+    public List<Member> searchMembers(String keyword, int offset, int limit) throws SQLException {
         String sql = """
-            SELECT * FROM members
-             WHERE name LIKE ?
-                OR surname LIKE ?
-                OR username LIKE ?
-                OR phone LIKE ?
-                OR email LIKE ?
-                OR home_address LIKE ?
-            ORDER BY surname ASC, name ASC
+            SELECT members.*
+              FROM members_fts
+              JOIN members ON members.id = members_fts.rowid
+             WHERE members_fts MATCH ?
+            ORDER BY members.surname ASC, members.name ASC
+            LIMIT ? OFFSET ?
             """;
 
         List<Member> list = new ArrayList<>();
-        String pattern = "%" + keyword + "%";
+        String query = toMatchQuery(keyword);
+        if (query == null) {
+            return list;
+        }
 
         try (Connection conn = DbConnection.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
 
-            ps.setString(1, pattern);
-            ps.setString(2, pattern);
-            ps.setString(3, pattern);
-            ps.setString(4, pattern);
-            ps.setString(5, pattern);
-            ps.setString(6, pattern);
+            ps.setString(1, query);
+            ps.setInt(2, limit);
+            ps.setInt(3, offset);
 
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
@@ -184,39 +291,119 @@ public class MemberDao {
                  WHERE id = ?
                 """;
 
-        try (Connection conn = DbConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+        DbConnection.write(conn -> {
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+
+                ps.setString(1, member.getName());
+                ps.setString(2, member.getSurname());
+                ps.setString(3, member.getUsername());
+                ps.setString(4, member.getPassword());
+                ps.setString(5, member.getPhone());
+                ps.setString(6, member.getEmail());
+                if (member.getHomeAddress() != null && !member.getHomeAddress().isBlank()) {
+                    ps.setString(7, member.getHomeAddress());
+                } else {
+                    ps.setNull(7, Types.VARCHAR);
+                }
+                ps.setInt(8, member.getId());
 
-            ps.setString(1, member.getName());
-            ps.setString(2, member.getSurname());
-            ps.setString(3, member.getUsername());
-            ps.setString(4, member.getPassword());
-            ps.setString(5, member.getPhone());
-            ps.setString(6, member.getEmail());
-            if (member.getHomeAddress() != null && !member.getHomeAddress().isBlank()) {
-                ps.setString(7, member.getHomeAddress());
-            } else {
-                ps.setNull(7, Types.VARCHAR);
+                ps.executeUpdate();
             }
-            ps.setInt(8, member.getId());
 
-            ps.executeUpdate();
-        }
+            unindexMember(conn, member.getId());
+            indexMember(conn, member);
+        });
     }
 
 
     public void deleteMember(int id) throws SQLException {
         String sql = "DELETE FROM members WHERE id = ?";
 
-        try (Connection conn = DbConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+        DbConnection.write(conn -> {
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setInt(1, id);
+                ps.executeUpdate();
+            }
+
+            unindexMember(conn, id);
+        });
+    }
 
+
+    private void indexMember(Connection conn, Member member) throws SQLException {
+        String sql = """
+                INSERT INTO members_fts(rowid, name, surname, username, phone, email, home_address)
+                VALUES (?, ?, ?, ?, ?, ?, ?)
+                """;
+
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, member.getId());
+            ps.setString(2, member.getName());
+            ps.setString(3, member.getSurname());
+            ps.setString(4, member.getUsername());
+            ps.setString(5, phoneTokens(member.getPhone()));
+            ps.setString(6, member.getEmail() == null ? null : member.getEmail().toLowerCase(Locale.ROOT));
+            ps.setString(7, member.getHomeAddress());
+            ps.executeUpdate();
+        }
+    }
+
+
+    private void unindexMember(Connection conn, int id) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("DELETE FROM members_fts WHERE rowid = ?")) {
             ps.setInt(1, id);
             ps.executeUpdate();
         }
     }
 
 
+    // Phone numbers are indexed as their digits plus every digit suffix of
+    // length >= 3, so a prefix match on the tokens finds any inner run of digits.
+    // Migration 10 builds the same tokens in SQL; keep the two in step.
+    static String phoneTokens(String phone) {
+        String digits = digitsOf(phone);
+        if (digits.length() <= MIN_PHONE_TOKEN) {
+            return digits;
+        }
+
+        StringBuilder sb = new StringBuilder(digits);
+        for (int i = 1; i <= digits.length() - MIN_PHONE_TOKEN; i++) {
+            sb.append(' ').append(digits, i, digits.length());
+        }
+        return sb.toString();
+    }
+
+
+    private static String digitsOf(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+
+    // Typed phone numbers ("+994 50-123") are matched on their digits alone.
+    private static String toMatchQuery(String keyword) {
+        String query = FtsQuery.prefixQuery(keyword);
+        if (query == null) {
+            return null;
+        }
+
+        String digits = digitsOf(keyword);
+        if (digits.length() >= MIN_PHONE_TOKEN && PHONE_LIKE.matcher(keyword.strip()).matches()) {
+            return "(" + query + ") OR phone : \"" + digits + "\"*";
+        }
+        return query;
+    }
+
+
     private Member mapRowToMember(ResultSet rs) throws SQLException {
         Member member = new Member();
         member.setId(rs.getInt("id"));
@@ -0,0 +1,50 @@
+package library.dao;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+public class Migration {
+
+    private final int version;
+    private final String description;
+    private final List<String> statements;
+
+    public Migration(int version, String description, String... statements) {
+        this.version = version;
+        this.description = description;
+        this.statements = List.of(statements);
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public List<String> getStatements() {
+        return statements;
+    }
+
+    public String getChecksum() {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String statement : statements) {
+                digest.update(statement.strip().getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) ';');
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available.", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "V" + version + " (" + description + ")";
+    }
+}
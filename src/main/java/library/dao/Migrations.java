@@ -0,0 +1,223 @@
+package library.dao;
+
+import java.util.List;
+
+// Ordered schema history. Never edit a migration that has shipped; add a new one.
+final class Migrations {
+
+    static final String BOOKS_FTS_INSERT_TRIGGER = """
+            CREATE TRIGGER IF NOT EXISTS books_fts_ai AFTER INSERT ON books BEGIN
+                INSERT INTO books_fts(rowid, title, author, isbn, category)
+                VALUES (new.id, new.title, new.author, new.isbn, new.category);
+            END
+            """;
+
+    private Migrations() {
+    }
+
+    static List<Migration> all() {
+        return List.of(
+                new Migration(1, "Create base tables",
+                        """
+                        CREATE TABLE IF NOT EXISTS books (
+                            id          INTEGER PRIMARY KEY AUTOINCREMENT,
+                            title       TEXT NOT NULL,
+                            author      TEXT NOT NULL,
+                            isbn        TEXT NOT NULL UNIQUE,
+                            category    TEXT,
+                            copy_count  INTEGER NOT NULL
+                        )
+                        """,
+                        """
+                        CREATE TABLE IF NOT EXISTS members (
+                            id           INTEGER PRIMARY KEY AUTOINCREMENT,
+                            name         TEXT NOT NULL,
+                            surname      TEXT NOT NULL,
+                            username     TEXT NOT NULL UNIQUE,
+                            password     TEXT NOT NULL,
+                            phone        TEXT NOT NULL,
+                            email        TEXT NOT NULL,
+                            home_address TEXT
+                        )
+                        """,
+                        """
+                        CREATE TABLE IF NOT EXISTS librarians (
+                            id        INTEGER PRIMARY KEY AUTOINCREMENT,
+                            username  TEXT NOT NULL UNIQUE,
+                            password  TEXT NOT NULL
+                        )
+                        """,
+                        """
+                        CREATE TABLE IF NOT EXISTS loans (
+                            id          INTEGER PRIMARY KEY AUTOINCREMENT,
+                            book_id     INTEGER NOT NULL,
+                            member_id   INTEGER NOT NULL,
+                            loan_date   DATE NOT NULL,
+                            due_date    DATE NOT NULL,
+                            return_date DATE,
+                            FOREIGN KEY (book_id)  REFERENCES books(id),
+                            FOREIGN KEY (member_id) REFERENCES members(id)
+                        )
+                        """
+                ),
+
+                new Migration(2, "Add loan indexes",
+                        "CREATE INDEX IF NOT EXISTS idx_loans_member_loan_date ON loans(member_id, loan_date)",
+                        "CREATE INDEX IF NOT EXISTS idx_loans_active_book ON loans(book_id) WHERE return_date IS NULL",
+                        "CREATE INDEX IF NOT EXISTS idx_loans_active_due ON loans(due_date) WHERE return_date IS NULL",
+                        "ANALYZE loans"
+                ),
+
+                new Migration(3, "Add full-text index over books",
+                        """
+                        CREATE VIRTUAL TABLE IF NOT EXISTS books_fts USING fts5(
+                            title, author, isbn, category,
+                            content = 'books',
+                            content_rowid = 'id',
+                            prefix = '2 3',
+                            tokenize = 'unicode61 remove_diacritics 2'
+                        )
+                        """,
+                        BOOKS_FTS_INSERT_TRIGGER,
+                        """
+                        CREATE TRIGGER IF NOT EXISTS books_fts_ad AFTER DELETE ON books BEGIN
+                            INSERT INTO books_fts(books_fts, rowid, title, author, isbn, category)
+                            VALUES ('delete', old.id, old.title, old.author, old.isbn, old.category);
+                        END
+                        """,
+                        """
+                        CREATE TRIGGER IF NOT EXISTS books_fts_au AFTER UPDATE OF title, author, isbn, category ON books BEGIN
+                            INSERT INTO books_fts(books_fts, rowid, title, author, isbn, category)
+                            VALUES ('delete', old.id, old.title, old.author, old.isbn, old.category);
+                            INSERT INTO books_fts(rowid, title, author, isbn, category)
+                            VALUES (new.id, new.title, new.author, new.isbn, new.category);
+                        END
+                        """,
+                        "INSERT INTO books_fts(books_fts) VALUES ('rebuild')"
+                ),
+
+                // Maintained by MemberDao; phone holds the digit suffixes, email is lower-cased.
+                new Migration(4, "Add full-text index over members",
+                        """
+                        CREATE VIRTUAL TABLE IF NOT EXISTS members_fts USING fts5(
+                            name, surname, username, phone, email, home_address,
+                            prefix = '2 3',
+                            tokenize = 'unicode61 remove_diacritics 2'
+                        )
+                        """,
+                        """
+                        INSERT INTO members_fts(rowid, name, surname, username, phone, email, home_address)
+                        WITH RECURSIVE
+                            digits(id, value) AS (
+                                SELECT id,
+                                       replace(replace(replace(replace(replace(replace(replace(
+                                           phone, ' ', ''), '-', ''), '(', ''), ')', ''), '+', ''), '.', ''), '/', '')
+                                  FROM members
+                            ),
+                            suffixes(id, value) AS (
+                                SELECT id, value FROM digits
+                                UNION ALL
+                                SELECT id, substr(value, 2) FROM suffixes WHERE length(value) > 3
+                            ),
+                            phones(id, tokens) AS (
+                                SELECT id, group_concat(value, ' ') FROM suffixes GROUP BY id
+                            )
+                        SELECT m.id, m.name, m.surname, m.username, p.tokens, lower(m.email), m.home_address
+                          FROM members m
+                          LEFT JOIN phones p ON p.id = m.id
+                        """
+                ),
+
+                // Kept current by LoanDao (loans) and BookDao (copy count edits).
+                new Migration(5, "Add available copies counter to books",
+                        "ALTER TABLE books ADD COLUMN available_copies INTEGER NOT NULL DEFAULT 0",
+                        """
+                        UPDATE books
+                           SET available_copies = copy_count - (
+                                   SELECT COUNT(*)
+                                     FROM loans
+                                    WHERE loans.book_id = books.id
+                                      AND loans.return_date IS NULL
+                               )
+                        """
+                ),
+
+                new Migration(6, "Index all loans by book for usage statistics",
+                        "CREATE INDEX IF NOT EXISTS idx_loans_book ON loans(book_id)",
+                        "ANALYZE loans"
+                ),
+
+                new Migration(7, "Index active loans by member",
+                        "CREATE INDEX IF NOT EXISTS idx_loans_active_member ON loans(member_id) WHERE return_date IS NULL",
+                        "ANALYZE loans"
+                ),
+
+                // Seek indexes for keyset paging; the rowid (id) is the implicit last column.
+                new Migration(8, "Add paging indexes for books and members",
+                        "CREATE INDEX IF NOT EXISTS idx_books_title ON books(title)",
+                        "CREATE INDEX IF NOT EXISTS idx_members_surname_name ON members(surname, name)"
+                ),
+
+                // Loan dates become days since 1970-01-01. Older rows hold the driver's
+                // local-midnight epoch millis (or ISO text when written by other tools).
+                new Migration(9, "Store loan dates as epoch days",
+                        """
+                        UPDATE loans
+                           SET loan_date   = %s,
+                               due_date    = %s,
+                               return_date = %s
+                        """.formatted(epochDay("loan_date"), epochDay("due_date"), epochDay("return_date")),
+                        "CREATE INDEX IF NOT EXISTS idx_loans_loan_date ON loans(loan_date)",
+                        "ANALYZE loans"
+                ),
+
+                // V4 stripped a fixed set of separators from phones, MemberDao keeps
+                // digits only. Re-index every phone the way MemberDao.phoneTokens does.
+                new Migration(10, "Index member phones by their digits only",
+                        "DELETE FROM members_fts",
+                        """
+                        INSERT INTO members_fts(rowid, name, surname, username, phone, email, home_address)
+                        WITH RECURSIVE
+                            scan(id, rest, value) AS (
+                                SELECT id, phone, '' FROM members
+                                UNION ALL
+                                SELECT id,
+                                       substr(rest, 2),
+                                       value || CASE WHEN substr(rest, 1, 1) GLOB '[0-9]' THEN substr(rest, 1, 1) ELSE '' END
+                                  FROM scan
+                                 WHERE rest <> ''
+                            ),
+                            digits(id, value) AS (
+                                SELECT id, value FROM scan WHERE rest = ''
+                            ),
+                            suffixes(id, value) AS (
+                                SELECT id, value FROM digits
+                                UNION ALL
+                                SELECT id, substr(value, 2) FROM suffixes WHERE length(value) > 3
+                            ),
+                            phones(id, tokens) AS (
+                                SELECT id, group_concat(value, ' ') FROM suffixes GROUP BY id
+                            )
+                        SELECT m.id, m.name, m.surname, m.username, p.tokens, lower(m.email), m.home_address
+                          FROM members m
+                          LEFT JOIN phones p ON p.id = m.id
+                        """
+                ),
+
+                // The full-text index splits ISBNs at their dashes, so an ISBN typed
+                // without them is looked up through this index instead (see BookDao).
+                new Migration(11, "Index books by ISBN without dashes or spaces",
+                        "CREATE INDEX IF NOT EXISTS idx_books_isbn_digits ON books(replace(replace(isbn, '-', ''), ' ', ''))"
+                )
+        );
+    }
+
+    private static String epochDay(String column) {
+        return """
+                CASE typeof(%1$s)
+                    WHEN 'integer' THEN CAST(julianday(date(%1$s / 1000, 'unixepoch', 'localtime')) - 2440587.5 AS INTEGER)
+                    WHEN 'real'    THEN CAST(julianday(date(%1$s / 1000, 'unixepoch', 'localtime')) - 2440587.5 AS INTEGER)
+                    WHEN 'text'    THEN CAST(julianday(date(%1$s)) - 2440587.5 AS INTEGER)
+                END""".formatted(column);
+    }
+}
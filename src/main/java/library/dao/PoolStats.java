@@ -0,0 +1,94 @@
+package library.dao;
+
+public class PoolStats {
+
+    private final int maxSize;
+    private final int created;
+    private final int inUse;
+    private final int idle;
+    private final long acquisitions;
+    private final long totalWaitMillis;
+    private final long maxWaitMillis;
+    private final long statementCacheHits;
+    private final long statementCacheMisses;
+
+    public PoolStats(int maxSize,
+                     int created,
+                     int inUse,
+                     int idle,
+                     long acquisitions,
+                     long totalWaitMillis,
+                     long maxWaitMillis,
+                     long statementCacheHits,
+                     long statementCacheMisses) {
+        this.maxSize = maxSize;
+        this.created = created;
+        this.inUse = inUse;
+        this.idle = idle;
+        this.acquisitions = acquisitions;
+        this.totalWaitMillis = totalWaitMillis;
+        this.maxWaitMillis = maxWaitMillis;
+        this.statementCacheHits = statementCacheHits;
+        this.statementCacheMisses = statementCacheMisses;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public int getInUse() {
+        return inUse;
+    }
+
+    public int getIdle() {
+        return idle;
+    }
+
+    public long getAcquisitions() {
+        return acquisitions;
+    }
+
+    public long getTotalWaitMillis() {
+        return totalWaitMillis;
+    }
+
+    public long getMaxWaitMillis() {
+        return maxWaitMillis;
+    }
+
+    public double getAverageWaitMillis() {
+        return acquisitions == 0 ? 0 : (double) totalWaitMillis / acquisitions;
+    }
+
+    public long getStatementCacheHits() {
+        return statementCacheHits;
+    }
+
+    public long getStatementCacheMisses() {
+        return statementCacheMisses;
+    }
+
+    public double getStatementCacheHitRate() {
+        long total = statementCacheHits + statementCacheMisses;
+        return total == 0 ? 0 : (double) statementCacheHits / total;
+    }
+
+    @Override
+    public String toString() {
+        return "PoolStats{" +
+                "maxSize=" + maxSize +
+                ", created=" + created +
+                ", inUse=" + inUse +
+                ", idle=" + idle +
+                ", acquisitions=" + acquisitions +
+                ", totalWaitMillis=" + totalWaitMillis +
+                ", maxWaitMillis=" + maxWaitMillis +
+                ", statementCacheHits=" + statementCacheHits +
+                ", statementCacheMisses=" + statementCacheMisses +
+                '}';
+    }
+}
@@ -0,0 +1,74 @@
+package library.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Lazily mapped query results. The connection, statement and result set stay
+// open until the stream is closed, so callers must use try-with-resources.
+// While it is open the stream also holds a WAL read snapshot.
+final class QueryStream {
+
+    static final int DEFAULT_FETCH_SIZE = 500;
+
+    private QueryStream() {
+    }
+
+    static <T> Stream<T> open(String sql, int fetchSize, RowMapper<T> mapper) throws SQLException {
+        Connection conn = DbConnection.getConnection();
+        PreparedStatement ps = null;
+        ResultSet rs;
+
+        try {
+            ps = conn.prepareStatement(sql);
+            ps.setFetchSize(fetchSize);
+            rs = ps.executeQuery();
+        } catch (SQLException | RuntimeException e) {
+            closeQuietly(ps, e);
+            closeQuietly(conn, e);
+            throw e;
+        }
+
+        Spliterator<T> rows = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                try {
+                    if (!rs.next()) {
+                        return false;
+                    }
+                    action.accept(mapper.map(rs));
+                    return true;
+                } catch (SQLException e) {
+                    throw new RuntimeException("Failed to read the next row.", e);
+                }
+            }
+        };
+
+        PreparedStatement statement = ps;
+        return StreamSupport.stream(rows, false).onClose(() -> {
+            try (conn; statement; rs) {
+                // closed in reverse order
+            } catch (SQLException e) {
+                throw new RuntimeException("Failed to close the query stream.", e);
+            }
+        });
+    }
+
+    private static void closeQuietly(AutoCloseable resource, Exception cause) {
+        if (resource == null) {
+            return;
+        }
+        try {
+            resource.close();
+        } catch (Exception e) {
+            cause.addSuppressed(e);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package library.dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    T map(ResultSet rs) throws SQLException;
+}
@@ -0,0 +1,108 @@
+package library.dao;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class SchemaMigrator {
+
+    private final List<Migration> migrations;
+
+    public SchemaMigrator() {
+        this(Migrations.all());
+    }
+
+    public SchemaMigrator(List<Migration> migrations) {
+        this.migrations = migrations;
+    }
+
+    public int getLatestVersion() {
+        return migrations.isEmpty() ? 0 : migrations.get(migrations.size() - 1).getVersion();
+    }
+
+    // Applies pending migrations, each in its own transaction. Returns how many ran.
+    public int migrate() throws SQLException {
+        try (Connection conn = DbConnection.getConnection()) {
+            Map<Integer, String> applied = loadAppliedVersions(conn);
+
+            int count = 0;
+            for (Migration migration : migrations) {
+                String checksum = applied.get(migration.getVersion());
+
+                if (checksum == null) {
+                    apply(conn, migration);
+                    count++;
+                } else if (!checksum.equals(migration.getChecksum())) {
+                    throw new SQLException("Checksum mismatch for applied migration " + migration
+                            + ". The migration was changed after it was applied.");
+                }
+            }
+            return count;
+        }
+    }
+
+    private Map<Integer, String> loadAppliedVersions(Connection conn) throws SQLException {
+        Map<Integer, String> applied = new HashMap<>();
+
+        String existsSql = "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = 'schema_version'";
+        try (PreparedStatement ps = conn.prepareStatement(existsSql);
+             ResultSet rs = ps.executeQuery()) {
+            if (!rs.next()) {
+                return applied;
+            }
+        }
+
+        try (PreparedStatement ps = conn.prepareStatement("SELECT version, checksum FROM schema_version");
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                applied.put(rs.getInt("version"), rs.getString("checksum"));
+            }
+        }
+
+        return applied;
+    }
+
+    private void apply(Connection conn, Migration migration) throws SQLException {
+        conn.setAutoCommit(false);
+        try {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("""
+                        CREATE TABLE IF NOT EXISTS schema_version (
+                            version     INTEGER PRIMARY KEY,
+                            description TEXT NOT NULL,
+                            checksum    TEXT NOT NULL,
+                            applied_at  TEXT NOT NULL
+                        )
+                        """);
+
+                for (String sql : migration.getStatements()) {
+                    stmt.execute(sql);
+                }
+            }
+
+            String sql = """
+                    INSERT INTO schema_version(version, description, checksum, applied_at)
+                    VALUES (?, ?, ?, ?)
+                    """;
+
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setInt(1, migration.getVersion());
+                ps.setString(2, migration.getDescription());
+                ps.setString(3, migration.getChecksum());
+                ps.setString(4, LocalDateTime.now().toString());
+                ps.executeUpdate();
+            }
+
+            conn.commit();
+            System.out.println("Applied migration " + migration);
+
+        } catch (SQLException e) {
+            conn.rollback();
+            throw new SQLException("Migration " + migration + " failed: " + e.getMessage(), e);
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+}
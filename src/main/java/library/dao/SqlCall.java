@@ -0,0 +1,9 @@
+package library.dao;
+
+import java.sql.SQLException;
+
+@FunctionalInterface
+public interface SqlCall<T> {
+
+    T call() throws SQLException;
+}
@@ -0,0 +1,10 @@
+package library.dao;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+@FunctionalInterface
+public interface SqlWork {
+
+    void execute(Connection conn) throws SQLException;
+}
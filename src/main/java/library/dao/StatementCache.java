@@ -0,0 +1,162 @@
+package library.dao;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Prepared statements of one physical connection, keyed by SQL text.
+// Only ever touched by the thread that currently holds the connection.
+class StatementCache {
+
+    private final Connection physical;
+    private final int maxSize;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    StatementCache(Connection physical, int maxSize, AtomicLong hits, AtomicLong misses) {
+        this.physical = physical;
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.misses = misses;
+    }
+
+    PreparedStatement prepare(Connection owner, String sql, int autoGeneratedKeys) throws SQLException {
+        String key = autoGeneratedKeys + ":" + sql;
+        Entry entry = entries.get(key);
+
+        if (entry != null && entry.broken) {
+            entries.remove(key);
+            entry = null;
+        }
+
+        if (entry != null && entry.inUse) {
+            // Same SQL already open on this connection (nested use): hand out a plain statement.
+            misses.incrementAndGet();
+            return physical.prepareStatement(sql, autoGeneratedKeys);
+        }
+
+        if (entry == null) {
+            misses.incrementAndGet();
+            entry = new Entry(physical.prepareStatement(sql, autoGeneratedKeys));
+            entries.put(key, entry);
+            evictOverflow();
+        } else {
+            hits.incrementAndGet();
+        }
+
+        entry.inUse = true;
+        return entry.lease(owner);
+    }
+
+    void closeAll() {
+        for (Entry entry : entries.values()) {
+            closeQuietly(entry.statement);
+        }
+        entries.clear();
+    }
+
+    private void evictOverflow() {
+        Iterator<Entry> it = entries.values().iterator();
+        while (entries.size() > maxSize && it.hasNext()) {
+            Entry eldest = it.next();
+            if (!eldest.inUse) {
+                it.remove();
+                closeQuietly(eldest.statement);
+            }
+        }
+    }
+
+    private static void closeQuietly(Statement statement) {
+        try {
+            statement.close();
+        } catch (SQLException ignored) {
+        }
+    }
+
+    private static class Entry {
+
+        private final PreparedStatement statement;
+        private boolean inUse;
+        private boolean broken;
+
+        Entry(PreparedStatement statement) {
+            this.statement = statement;
+        }
+
+        PreparedStatement lease(Connection owner) {
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    new Lease(this, owner)
+            );
+        }
+    }
+
+    // close() hands the statement back to the cache instead of finalizing it.
+    private static class Lease implements InvocationHandler {
+
+        private Entry entry;
+        private final Connection owner;
+
+        Lease(Entry entry, Connection owner) {
+            this.entry = entry;
+            this.owner = owner;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (entry != null) {
+                        Entry toReturn = entry;
+                        entry = null;
+                        try {
+                            toReturn.statement.clearParameters();
+                            toReturn.statement.clearBatch();
+                        } catch (SQLException e) {
+                            // The driver finalizes a statement whose query was aborted
+                            // (e.g. by a cancelled task); it is replaced on next use.
+                            toReturn.broken = true;
+                            closeQuietly(toReturn.statement);
+                        } finally {
+                            toReturn.inUse = false;
+                        }
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return entry == null;
+                }
+                case "getConnection" -> {
+                    return owner;
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                default -> {
+                    if (entry == null) {
+                        throw new SQLException("Statement has already been closed.");
+                    }
+                    try {
+                        return method.invoke(entry.statement, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package library.dao;
+
+import library.model.DashboardStats;
+
+import java.sql.*;
+import java.time.LocalDate;
+
+public class StatisticsDao {
+
+
+    // All dashboard counters in one round trip; every subquery is served by an index.
+    public DashboardStats getDashboardStats(LocalDate today) throws SQLException {
+        String sql = """
+                SELECT (SELECT COUNT(*) FROM books)   AS total_books,
+                       (SELECT COUNT(*) FROM members) AS total_members,
+                       (SELECT COUNT(*)
+                          FROM loans
+                         WHERE return_date IS NULL)   AS active_loans,
+                       (SELECT COUNT(DISTINCT member_id)
+                          FROM loans
+                         WHERE return_date IS NULL)   AS members_with_active_loans,
+                       (SELECT COUNT(*)
+                          FROM loans
+                         WHERE due_date < ?
+                           AND return_date IS NULL)   AS overdue_loans
+                """;
+
+        try (Connection conn = DbConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setLong(1, today.toEpochDay());
+
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return new DashboardStats(
+                        rs.getInt("total_books"),
+                        rs.getInt("total_members"),
+                        rs.getInt("active_loans"),
+                        rs.getInt("members_with_active_loans"),
+                        rs.getInt("overdue_loans")
+                );
+            }
+        }
+    }
+}
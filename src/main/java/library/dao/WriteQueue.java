@@ -0,0 +1,183 @@
+package library.dao;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// All small writes go through one writer thread. Whatever is queued when the
+// writer gets to it (up to MAX_GROUP operations) runs in a single transaction,
+// so a burst of checkouts costs one commit instead of one each. Every
+// operation gets its own savepoint: a failing one is rolled back on its own
+// and the rest of the group still commits. Futures complete after the commit.
+// Exclusive operations (bulk import chunks) always run in a group of their own.
+public class WriteQueue {
+
+    private static final int MAX_GROUP = 64;
+
+    private static class Operation {
+        final SqlWork work;
+        final boolean exclusive;
+        final CompletableFuture<Void> result = new CompletableFuture<>();
+        SQLException error;
+
+        Operation(SqlWork work, boolean exclusive) {
+            this.work = work;
+            this.exclusive = exclusive;
+        }
+    }
+
+    private final BlockingQueue<Operation> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+
+    private final AtomicInteger maxQueueDepth = new AtomicInteger();
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong committedOps = new AtomicLong();
+    private final AtomicLong failedOps = new AtomicLong();
+    private final AtomicLong commits = new AtomicLong();
+    private final AtomicLong totalCommitNanos = new AtomicLong();
+    private final AtomicLong maxCommitNanos = new AtomicLong();
+
+    private volatile boolean closed;
+
+    public WriteQueue() {
+        writer = new Thread(this::run, "db-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // The work runs on the writer's connection inside its transaction, so it
+    // must not commit, roll back or change auto-commit itself.
+    public CompletableFuture<Void> submit(SqlWork work) {
+        return enqueue(new Operation(work, false));
+    }
+
+    // Runs the work in a transaction of its own, e.g. one chunk of an import.
+    // Queued small writes wait only for this one operation, not the whole import.
+    public CompletableFuture<Void> submitExclusive(SqlWork work) {
+        return enqueue(new Operation(work, true));
+    }
+
+    private CompletableFuture<Void> enqueue(Operation op) {
+
+        if (closed) {
+            op.result.completeExceptionally(new SQLException("The write queue has been shut down."));
+            return op.result;
+        }
+        if (Thread.currentThread() == writer) {
+            op.result.completeExceptionally(new SQLException("Writes cannot be queued from inside a write."));
+            return op.result;
+        }
+
+        submitted.incrementAndGet();
+        queue.add(op);
+        maxQueueDepth.accumulateAndGet(queue.size(), Math::max);
+        return op.result;
+    }
+
+    public WriteStats getStats() {
+        return new WriteStats(
+                queue.size(),
+                maxQueueDepth.get(),
+                submitted.get(),
+                committedOps.get(),
+                failedOps.get(),
+                commits.get(),
+                TimeUnit.NANOSECONDS.toMillis(totalCommitNanos.get()),
+                TimeUnit.NANOSECONDS.toMillis(maxCommitNanos.get())
+        );
+    }
+
+    public void shutdown() {
+        closed = true;
+        writer.interrupt();
+    }
+
+    private void run() {
+        List<Operation> group = new ArrayList<>(MAX_GROUP);
+
+        while (!closed) {
+            try {
+                group.add(queue.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            // Only this thread takes from the queue, so the head seen by peek()
+            // is the one poll() returns.
+            Operation next;
+            while (!group.get(0).exclusive && group.size() < MAX_GROUP
+                    && (next = queue.peek()) != null && !next.exclusive) {
+                group.add(queue.poll());
+            }
+
+            long start = System.nanoTime();
+            try {
+                runGroup(group);
+                long elapsed = System.nanoTime() - start;
+                commits.incrementAndGet();
+                totalCommitNanos.addAndGet(elapsed);
+                maxCommitNanos.accumulateAndGet(elapsed, Math::max);
+                complete(group);
+            } catch (SQLException | RuntimeException e) {
+                fail(group, e);
+            }
+            group.clear();
+        }
+
+        Operation op;
+        while ((op = queue.poll()) != null) {
+            op.result.completeExceptionally(new SQLException("The write queue has been shut down."));
+        }
+    }
+
+    private void runGroup(List<Operation> group) throws SQLException {
+        try (Connection conn = DbConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                for (Operation op : group) {
+                    Savepoint savepoint = conn.setSavepoint();
+                    try {
+                        op.work.execute(conn);
+                    } catch (SQLException e) {
+                        op.error = e;
+                        conn.rollback(savepoint);
+                    } catch (RuntimeException e) {
+                        op.error = new SQLException(e.getMessage(), e);
+                        conn.rollback(savepoint);
+                    }
+                    conn.releaseSavepoint(savepoint);
+                }
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private void complete(List<Operation> group) {
+        for (Operation op : group) {
+            if (op.error == null) {
+                committedOps.incrementAndGet();
+                op.result.complete(null);
+            } else {
+                failedOps.incrementAndGet();
+                op.result.completeExceptionally(op.error);
+            }
+        }
+    }
+
+    private void fail(List<Operation> group, Exception e) {
+        for (Operation op : group) {
+            failedOps.incrementAndGet();
+            op.result.completeExceptionally(op.error != null ? op.error : e);
+        }
+    }
+}
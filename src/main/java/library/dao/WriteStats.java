@@ -0,0 +1,85 @@
+package library.dao;
+
+public class WriteStats {
+
+    private final int queueDepth;
+    private final int maxQueueDepth;
+    private final long submitted;
+    private final long committedOps;
+    private final long failedOps;
+    private final long commits;
+    private final long totalCommitMillis;
+    private final long maxCommitMillis;
+
+    public WriteStats(int queueDepth,
+                      int maxQueueDepth,
+                      long submitted,
+                      long committedOps,
+                      long failedOps,
+                      long commits,
+                      long totalCommitMillis,
+                      long maxCommitMillis) {
+        this.queueDepth = queueDepth;
+        this.maxQueueDepth = maxQueueDepth;
+        this.submitted = submitted;
+        this.committedOps = committedOps;
+        this.failedOps = failedOps;
+        this.commits = commits;
+        this.totalCommitMillis = totalCommitMillis;
+        this.maxCommitMillis = maxCommitMillis;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public int getMaxQueueDepth() {
+        return maxQueueDepth;
+    }
+
+    public long getSubmitted() {
+        return submitted;
+    }
+
+    public long getCommittedOps() {
+        return committedOps;
+    }
+
+    public long getFailedOps() {
+        return failedOps;
+    }
+
+    public long getCommits() {
+        return commits;
+    }
+
+    public long getTotalCommitMillis() {
+        return totalCommitMillis;
+    }
+
+    public long getMaxCommitMillis() {
+        return maxCommitMillis;
+    }
+
+    public double getAverageCommitMillis() {
+        return commits == 0 ? 0 : (double) totalCommitMillis / commits;
+    }
+
+    public double getAverageOpsPerCommit() {
+        return commits == 0 ? 0 : (double) (committedOps + failedOps) / commits;
+    }
+
+    @Override
+    public String toString() {
+        return "WriteStats{" +
+                "queueDepth=" + queueDepth +
+                ", maxQueueDepth=" + maxQueueDepth +
+                ", submitted=" + submitted +
+                ", committedOps=" + committedOps +
+                ", failedOps=" + failedOps +
+                ", commits=" + commits +
+                ", totalCommitMillis=" + totalCommitMillis +
+                ", maxCommitMillis=" + maxCommitMillis +
+                '}';
+    }
+}
@@ -0,0 +1,74 @@
+package library.io;
+
+import library.dao.BookDao;
+import library.model.Book;
+import library.search.CatalogIndex;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+// Loads books from a CSV file with a header row:
+//   title,author,isbn,category,copy_count
+// Column order is free and category may be left out. Rows are upserted on ISBN;
+// when the file repeats an ISBN the last row wins and the others count as duplicates.
+public class BookCsvImporter extends ChunkedCsvImporter<Book> {
+
+    private final BookDao bookDao = new BookDao();
+
+    @Override
+    protected RowMapper<Book> mapper(CsvHeader header) throws IOException {
+        int title = header.require("title");
+        int author = header.require("author");
+        int isbn = header.require("isbn");
+        int copyCount = header.require("copy_count");
+        int category = header.optional("category");
+
+        return (record, line, result) -> toBook(record, title, author, isbn, category, copyCount, line, result);
+    }
+
+    @Override
+    protected String keyOf(Book book) {
+        return book.getIsbn();
+    }
+
+    @Override
+    protected void write(Connection conn, List<Book> books) throws SQLException {
+        bookDao.upsertBooks(conn, books, BATCH_SIZE);
+    }
+
+    @Override
+    protected void imported() {
+        CatalogIndex.getInstance().loadInBackground();
+    }
+
+    private Book toBook(List<String> record, int title, int author, int isbn, int category, int copyCount,
+                        long line, ImportResult result) {
+
+        String titleValue = record.get(title).trim();
+        String authorValue = record.get(author).trim();
+        String isbnValue = record.get(isbn).trim();
+        String categoryValue = (category >= 0) ? record.get(category).trim() : "";
+        String copyCountText = record.get(copyCount).trim();
+
+        if (titleValue.isEmpty() || authorValue.isEmpty() || isbnValue.isEmpty()) {
+            result.reject(line, "Title, author and ISBN are required");
+            return null;
+        }
+
+        int copies;
+        try {
+            copies = Integer.parseInt(copyCountText);
+        } catch (NumberFormatException e) {
+            result.reject(line, "Copy count is not a number: " + copyCountText);
+            return null;
+        }
+        if (copies < 0) {
+            result.reject(line, "Copy count must not be negative");
+            return null;
+        }
+
+        return new Book(titleValue, authorValue, isbnValue, categoryValue, copies);
+    }
+}
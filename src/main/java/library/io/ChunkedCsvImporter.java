@@ -0,0 +1,123 @@
+package library.io;
+
+import library.dao.DbConnection;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Reads a CSV file with a header row and writes the accepted rows in chunks.
+// Each chunk commits on its own through the writer queue, so small writes
+// from the screens wait for one chunk at most, never the whole import.
+// Rows sharing a key with an earlier row of the file count as duplicates
+// and replace it.
+public abstract class ChunkedCsvImporter<T> {
+
+    protected static final int BATCH_SIZE = 1000;
+    private static final int ROWS_PER_TRANSACTION = 5_000;
+    private static final int PROGRESS_INTERVAL = 10_000;
+
+    // Turns one record into a row, or rejects it on the result and returns null.
+    @FunctionalInterface
+    protected interface RowMapper<T> {
+        T map(List<String> record, long line, ImportResult result);
+    }
+
+    public ImportResult importFile(Path file, ImportProgress progress) throws IOException, SQLException {
+        long started = System.currentTimeMillis();
+        long totalBytes = Files.size(file);
+        ImportResult result = new ImportResult();
+
+        try (CountingInputStream counter = new CountingInputStream(Files.newInputStream(file));
+             CsvReader csv = new CsvReader(new InputStreamReader(counter, StandardCharsets.UTF_8))) {
+
+            CsvHeader header = CsvHeader.read(csv);
+            RowMapper<T> mapper = mapper(header);
+
+            Set<String> keys = new HashSet<>();
+            Map<String, T> chunk = new LinkedHashMap<>();
+            int newRows = 0;
+            List<String> record;
+
+            while ((record = csv.readRecord()) != null) {
+                result.rowRead();
+
+                T row = null;
+                if (record.size() != header.size()) {
+                    result.reject(csv.getRecordLine(),
+                            "Expected " + header.size() + " fields but found " + record.size());
+                } else {
+                    row = mapper.map(record, csv.getRecordLine(), result);
+                }
+
+                if (row != null) {
+                    String key = keyOf(row);
+                    if (keys.add(key)) {
+                        newRows++;
+                    } else {
+                        result.duplicate();
+                    }
+                    chunk.put(key, row);
+                }
+
+                if (chunk.size() == ROWS_PER_TRANSACTION) {
+                    flush(chunk, newRows, result);
+                    newRows = 0;
+                }
+                if (result.getRowsRead() % PROGRESS_INTERVAL == 0) {
+                    progress.update(result.getRowsRead(), counter.getCount(), totalBytes);
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new InterruptedIOException("Import cancelled after "
+                                + result.getImported() + " rows.");
+                    }
+                }
+            }
+
+            flush(chunk, newRows, result);
+            progress.update(result.getRowsRead(), totalBytes, totalBytes);
+        } finally {
+            // Committed chunks are in the table even if the import stopped part way.
+            if (result.getImported() > 0) {
+                imported();
+            }
+        }
+
+        result.setElapsedMillis(System.currentTimeMillis() - started);
+        return result;
+    }
+
+    // Called once per file, after the header has been read; fails on missing columns.
+    protected abstract RowMapper<T> mapper(CsvHeader header) throws IOException, SQLException;
+
+    protected abstract String keyOf(T row);
+
+    // Writes one chunk on the writer's connection, inside its transaction.
+    protected abstract void write(Connection conn, List<T> rows) throws SQLException;
+
+    // Called when an import has written rows, even if it then failed.
+    protected void imported() {
+    }
+
+    // newRows: rows in the chunk whose key is new to this file.
+    private void flush(Map<String, T> chunk, int newRows, ImportResult result) throws SQLException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        List<T> rows = new ArrayList<>(chunk.values());
+        DbConnection.writeExclusive(conn -> write(conn, rows));
+        result.rowsImported(newRows);
+        chunk.clear();
+    }
+}
@@ -0,0 +1,49 @@
+package library.io;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Column positions from a CSV header row. Names are matched case-insensitively
+// and spaces count as underscores, so "Copy Count" finds copy_count.
+class CsvHeader {
+
+    private final Map<String, Integer> columns = new HashMap<>();
+    private final int size;
+
+    private CsvHeader(List<String> names) {
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i).replace("\uFEFF", "").trim()
+                    .toLowerCase(Locale.ROOT).replace(' ', '_');
+            columns.put(name, i);
+        }
+        size = names.size();
+    }
+
+    static CsvHeader read(CsvReader csv) throws IOException {
+        List<String> names = csv.readRecord();
+        if (names == null) {
+            throw new IOException("The file is empty.");
+        }
+        return new CsvHeader(names);
+    }
+
+    int size() {
+        return size;
+    }
+
+    int require(String name) throws IOException {
+        Integer index = columns.get(name);
+        if (index == null) {
+            throw new IOException("Missing column: " + name);
+        }
+        return index;
+    }
+
+    // -1 when the column is absent.
+    int optional(String name) {
+        return columns.getOrDefault(name, -1);
+    }
+}
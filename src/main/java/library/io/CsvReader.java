@@ -0,0 +1,113 @@
+package library.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+// Streaming RFC 4180 reader: quoted fields may contain commas, doubled quotes
+// and line breaks. Records are parsed one at a time from an internal buffer.
+public class CsvReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Reader in;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int pos;
+    private int limit;
+
+    private final StringBuilder field = new StringBuilder();
+    private long line = 1;
+    private long recordLine;
+
+    public CsvReader(Reader in) {
+        this.in = in;
+    }
+
+    // Line on which the last returned record started (1-based).
+    public long getRecordLine() {
+        return recordLine;
+    }
+
+    // Returns the next record, or null at end of input. Blank lines are skipped.
+    public List<String> readRecord() throws IOException {
+        int c = read();
+        while (c == '\r' || c == '\n') {
+            skipLineBreak(c);
+            c = read();
+        }
+        if (c == -1) {
+            return null;
+        }
+
+        recordLine = line;
+        List<String> record = new ArrayList<>();
+        field.setLength(0);
+        boolean quoted = false;
+
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted field starting on line " + recordLine);
+                }
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == ',') {
+                record.add(field.toString());
+                field.setLength(0);
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                record.add(field.toString());
+                if (c != -1) {
+                    skipLineBreak(c);
+                }
+                return record;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    // Called after reading \n or \r; also consumes the \n of a \r\n pair.
+    private void skipLineBreak(int c) throws IOException {
+        line++;
+        if (c == '\r') {
+            if (read() != '\n' && limit > 0) {
+                pos--;
+            }
+        }
+    }
+
+    private int read() throws IOException {
+        if (pos == limit) {
+            limit = in.read(buffer, 0, buffer.length);
+            pos = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[pos++];
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,59 @@
+package library.io;
+
+import java.io.IOException;
+import java.io.Writer;
+
+// RFC 4180 output, readable by CsvReader and the importers.
+class CsvRecordWriter implements RecordWriter {
+
+    private final Writer out;
+
+    CsvRecordWriter(Writer out) {
+        this.out = out;
+    }
+
+    @Override
+    public void header(String... names) throws IOException {
+        record((Object[]) names);
+    }
+
+    @Override
+    public void record(Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            if (values[i] != null) {
+                writeField(values[i].toString());
+            }
+        }
+        out.write("\r\n");
+    }
+
+    private void writeField(String value) throws IOException {
+        if (!needsQuotes(value)) {
+            out.write(value);
+            return;
+        }
+
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.write('"');
+            }
+            out.write(c);
+        }
+        out.write('"');
+    }
+
+    private static boolean needsQuotes(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
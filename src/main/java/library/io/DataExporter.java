@@ -0,0 +1,120 @@
+package library.io;
+
+import library.dao.BookDao;
+import library.dao.LoanDao;
+import library.dao.MemberDao;
+import library.model.Book;
+import library.model.Loan;
+import library.model.Member;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+// Writes whole tables from the DAO streams, one row at a time, so nothing
+// but the current row is held in memory. Member passwords are never exported.
+public class DataExporter {
+
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    private final ExportFormat format;
+    private final boolean gzip;
+
+    private final BookDao bookDao = new BookDao();
+    private final MemberDao memberDao = new MemberDao();
+    private final LoanDao loanDao = new LoanDao();
+
+    public DataExporter(ExportFormat format, boolean gzip) {
+        this.format = format;
+        this.gzip = gzip;
+    }
+
+    // e.g. books.csv or loans.jsonl.gz
+    public Path fileFor(Path directory, String table) {
+        String name = table + "." + format.getExtension() + (gzip ? ".gz" : "");
+        return directory.resolve(name);
+    }
+
+    public long exportBooks(Path file) throws IOException, SQLException {
+        try (Writer out = open(file);
+             Stream<Book> books = bookDao.streamAllBooks()) {
+
+            RecordWriter writer = recordWriter(out);
+            writer.header("id", "title", "author", "isbn", "category", "copy_count", "available_copies");
+
+            long count = 0;
+            Iterator<Book> it = books.iterator();
+            while (it.hasNext()) {
+                Book b = it.next();
+                writer.record(b.getId(), b.getTitle(), b.getAuthor(), b.getIsbn(), b.getCategory(),
+                        b.getCopyCount(), b.getAvailableCopies());
+                count++;
+            }
+            return count;
+        }
+    }
+
+    public long exportMembers(Path file) throws IOException, SQLException {
+        try (Writer out = open(file);
+             Stream<Member> members = memberDao.streamAllMembers()) {
+
+            RecordWriter writer = recordWriter(out);
+            writer.header("id", "name", "surname", "username", "phone", "email", "home_address");
+
+            long count = 0;
+            Iterator<Member> it = members.iterator();
+            while (it.hasNext()) {
+                Member m = it.next();
+                writer.record(m.getId(), m.getName(), m.getSurname(), m.getUsername(), m.getPhone(),
+                        m.getEmail(), m.getHomeAddress());
+                count++;
+            }
+            return count;
+        }
+    }
+
+    public long exportLoans(Path file) throws IOException, SQLException {
+        try (Writer out = open(file);
+             Stream<Loan> loans = loanDao.streamAllLoans()) {
+
+            RecordWriter writer = recordWriter(out);
+            writer.header("id", "book_id", "member_id", "loan_date", "due_date", "return_date");
+
+            long count = 0;
+            Iterator<Loan> it = loans.iterator();
+            while (it.hasNext()) {
+                Loan l = it.next();
+                writer.record(l.getId(), l.getBookId(), l.getMemberId(), l.getLoanDate(), l.getDueDate(),
+                        l.getReturnDate());
+                count++;
+            }
+            return count;
+        }
+    }
+
+    private RecordWriter recordWriter(Writer out) {
+        return (format == ExportFormat.CSV) ? new CsvRecordWriter(out) : new JsonLinesRecordWriter(out);
+    }
+
+    private Writer open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+
+        OutputStream out = Channels.newOutputStream(channel);
+        out = gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : new BufferedOutputStream(out, BUFFER_SIZE);
+
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+}
@@ -0,0 +1,24 @@
+package library.io;
+
+public enum ExportFormat {
+
+    CSV("csv", "CSV"),
+    JSON_LINES("jsonl", "JSON Lines");
+
+    private final String extension;
+    private final String label;
+
+    ExportFormat(String extension, String label) {
+        this.extension = extension;
+        this.label = label;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
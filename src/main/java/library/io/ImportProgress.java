@@ -0,0 +1,7 @@
+package library.io;
+
+@FunctionalInterface
+public interface ImportProgress {
+
+    void update(long rowsRead, long bytesRead, long totalBytes);
+}
@@ -0,0 +1,81 @@
+package library.io;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ImportResult {
+
+    // Only the first rejects are kept; the rest are counted.
+    private static final int MAX_REJECTS_KEPT = 1000;
+
+    private long rowsRead;
+    private long imported;
+    private long rejected;
+    private long duplicates;
+    private long elapsedMillis;
+    private final List<ImportReject> rejects = new ArrayList<>();
+
+    void rowRead() {
+        rowsRead++;
+    }
+
+    void rowsImported(int count) {
+        imported += count;
+    }
+
+    void reject(long line, String reason) {
+        rejected++;
+        if (rejects.size() < MAX_REJECTS_KEPT) {
+            rejects.add(new ImportReject(line, reason));
+        }
+    }
+
+    // A row repeating a key seen earlier in the file; it replaces the earlier row.
+    void duplicate() {
+        duplicates++;
+    }
+
+    void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public List<ImportReject> getRejects() {
+        return rejects;
+    }
+
+    public long getRowsPerSecond() {
+        return elapsedMillis == 0 ? rowsRead : rowsRead * 1000 / elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "ImportResult{" +
+                "rowsRead=" + rowsRead +
+                ", imported=" + imported +
+                ", rejected=" + rejected +
+                ", duplicates=" + duplicates +
+                ", elapsedMillis=" + elapsedMillis +
+                ", rowsPerSecond=" + getRowsPerSecond() +
+                '}';
+    }
+}
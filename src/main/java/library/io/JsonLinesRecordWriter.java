@@ -0,0 +1,70 @@
+package library.io;
+
+import java.io.IOException;
+import java.io.Writer;
+
+// One JSON object per line, keyed by the header names.
+class JsonLinesRecordWriter implements RecordWriter {
+
+    private final Writer out;
+    private String[] keys;
+
+    JsonLinesRecordWriter(Writer out) {
+        this.out = out;
+    }
+
+    @Override
+    public void header(String... names) {
+        keys = new String[names.length];
+        for (int i = 0; i < names.length; i++) {
+            keys[i] = quote(names[i]) + ':';
+        }
+    }
+
+    @Override
+    public void record(Object... values) throws IOException {
+        out.write('{');
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.write(keys[i]);
+
+            Object value = values[i];
+            if (value == null) {
+                out.write("null");
+            } else if (value instanceof Number) {
+                out.write(value.toString());
+            } else {
+                writeString(value.toString());
+            }
+        }
+        out.write("}\n");
+    }
+
+    private void writeString(String value) throws IOException {
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.write("\\\"");
+                case '\\' -> out.write("\\\\");
+                case '\n' -> out.write("\\n");
+                case '\r' -> out.write("\\r");
+                case '\t' -> out.write("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.write(c);
+                    }
+                }
+            }
+        }
+        out.write('"');
+    }
+
+    private static String quote(String name) {
+        return '"' + name + '"';
+    }
+}
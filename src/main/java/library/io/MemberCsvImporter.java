@@ -0,0 +1,69 @@
+package library.io;
+
+import library.dao.MemberDao;
+import library.model.Member;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Set;
+
+// Loads members from a CSV file with a header row:
+//   name,surname,username,password,phone,email,home_address
+// Column order is free and home_address may be left out. Usernames that are
+// already taken, or repeated in the file, are rejected before anything is written.
+public class MemberCsvImporter extends ChunkedCsvImporter<Member> {
+
+    private final MemberDao memberDao = new MemberDao();
+
+    @Override
+    protected RowMapper<Member> mapper(CsvHeader header) throws IOException, SQLException {
+        int[] fields = {
+                header.require("name"),
+                header.require("surname"),
+                header.require("username"),
+                header.require("password"),
+                header.require("phone"),
+                header.require("email"),
+                header.optional("home_address")
+        };
+        Set<String> usernames = memberDao.getAllUsernames();
+
+        return (record, line, result) -> toMember(record, fields, usernames, line, result);
+    }
+
+    @Override
+    protected String keyOf(Member member) {
+        return member.getUsername();
+    }
+
+    @Override
+    protected void write(Connection conn, List<Member> members) throws SQLException {
+        memberDao.insertMembers(conn, members, BATCH_SIZE);
+    }
+
+    private Member toMember(List<String> record, int[] fields, Set<String> usernames,
+                            long line, ImportResult result) {
+
+        String[] values = new String[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            values[i] = (fields[i] >= 0) ? record.get(fields[i]).trim() : "";
+        }
+
+        // Everything except the home address is required, as on the registration form.
+        for (int i = 0; i < 6; i++) {
+            if (values[i].isEmpty()) {
+                result.reject(line, "Name, surname, username, password, phone and email are required");
+                return null;
+            }
+        }
+
+        if (!usernames.add(values[2])) {
+            result.reject(line, "Username is already taken: " + values[2]);
+            return null;
+        }
+
+        return new Member(values[0], values[1], values[2], values[3], values[4], values[5], values[6]);
+    }
+}
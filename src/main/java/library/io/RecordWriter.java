@@ -0,0 +1,11 @@
+package library.io;
+
+import java.io.IOException;
+
+// One output format; values are strings, numbers, dates or null.
+interface RecordWriter {
+
+    void header(String... names) throws IOException;
+
+    void record(Object... values) throws IOException;
+}
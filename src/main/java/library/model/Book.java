@@ -9,6 +9,7 @@ public class Book {
     private String isbn;
     private String category;
     private int copyCount;
+    private int availableCopies;
 
     public Book() {
     }
@@ -79,6 +80,14 @@ public class Book {
         this.copyCount = copyCount;
     }
 
+    public int getAvailableCopies() {
+        return availableCopies;
+    }
+
+    public void setAvailableCopies(int availableCopies) {
+        this.availableCopies = availableCopies;
+    }
+
     @Override
     public String toString() {
         return "Book{" +
@@ -88,6 +97,7 @@ public class Book {
                 ", isbn='" + isbn + '\'' +
                 ", category='" + category + '\'' +
                 ", copyCount=" + copyCount +
+                ", availableCopies=" + availableCopies +
                 '}';
     }
 }
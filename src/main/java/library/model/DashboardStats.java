@@ -0,0 +1,77 @@
+package library.model;
+
+public class DashboardStats {
+
+    private int totalBooks;
+    private int totalMembers;
+    private int activeLoans;
+    private int membersWithActiveLoans;
+    private int overdueLoans;
+
+    public DashboardStats() {
+    }
+
+    public DashboardStats(int totalBooks,
+                          int totalMembers,
+                          int activeLoans,
+                          int membersWithActiveLoans,
+                          int overdueLoans) {
+        this.totalBooks = totalBooks;
+        this.totalMembers = totalMembers;
+        this.activeLoans = activeLoans;
+        this.membersWithActiveLoans = membersWithActiveLoans;
+        this.overdueLoans = overdueLoans;
+    }
+
+
+    public int getTotalBooks() {
+        return totalBooks;
+    }
+
+    public void setTotalBooks(int totalBooks) {
+        this.totalBooks = totalBooks;
+    }
+
+    public int getTotalMembers() {
+        return totalMembers;
+    }
+
+    public void setTotalMembers(int totalMembers) {
+        this.totalMembers = totalMembers;
+    }
+
+    public int getActiveLoans() {
+        return activeLoans;
+    }
+
+    public void setActiveLoans(int activeLoans) {
+        this.activeLoans = activeLoans;
+    }
+
+    public int getMembersWithActiveLoans() {
+        return membersWithActiveLoans;
+    }
+
+    public void setMembersWithActiveLoans(int membersWithActiveLoans) {
+        this.membersWithActiveLoans = membersWithActiveLoans;
+    }
+
+    public int getOverdueLoans() {
+        return overdueLoans;
+    }
+
+    public void setOverdueLoans(int overdueLoans) {
+        this.overdueLoans = overdueLoans;
+    }
+
+    @Override
+    public String toString() {
+        return "DashboardStats{" +
+                "totalBooks=" + totalBooks +
+                ", totalMembers=" + totalMembers +
+                ", activeLoans=" + activeLoans +
+                ", membersWithActiveLoans=" + membersWithActiveLoans +
+                ", overdueLoans=" + overdueLoans +
+                '}';
+    }
+}
@@ -0,0 +1,62 @@
+package library.model;
+
+public class LoanHistoryEntry {
+
+    private Loan loan;
+    private String bookTitle;
+    private String category;
+    private String status;
+
+    public LoanHistoryEntry() {
+    }
+
+    public LoanHistoryEntry(Loan loan, String bookTitle, String category, String status) {
+        this.loan = loan;
+        this.bookTitle = bookTitle;
+        this.category = category;
+        this.status = status;
+    }
+
+
+    public Loan getLoan() {
+        return loan;
+    }
+
+    public void setLoan(Loan loan) {
+        this.loan = loan;
+    }
+
+    public String getBookTitle() {
+        return bookTitle;
+    }
+
+    public void setBookTitle(String bookTitle) {
+        this.bookTitle = bookTitle;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    @Override
+    public String toString() {
+        return "LoanHistoryEntry{" +
+                "loan=" + loan +
+                ", bookTitle='" + bookTitle + '\'' +
+                ", category='" + category + '\'' +
+                ", status='" + status + '\'' +
+                '}';
+    }
+}
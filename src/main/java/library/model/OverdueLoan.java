@@ -0,0 +1,62 @@
+package library.model;
+
+public class OverdueLoan {
+
+    private Loan loan;
+    private Book book;
+    private Member member;
+    private long daysOverdue;
+
+    public OverdueLoan() {
+    }
+
+    public OverdueLoan(Loan loan, Book book, Member member, long daysOverdue) {
+        this.loan = loan;
+        this.book = book;
+        this.member = member;
+        this.daysOverdue = daysOverdue;
+    }
+
+
+    public Loan getLoan() {
+        return loan;
+    }
+
+    public void setLoan(Loan loan) {
+        this.loan = loan;
+    }
+
+    public Book getBook() {
+        return book;
+    }
+
+    public void setBook(Book book) {
+        this.book = book;
+    }
+
+    public Member getMember() {
+        return member;
+    }
+
+    public void setMember(Member member) {
+        this.member = member;
+    }
+
+    public long getDaysOverdue() {
+        return daysOverdue;
+    }
+
+    public void setDaysOverdue(long daysOverdue) {
+        this.daysOverdue = daysOverdue;
+    }
+
+    @Override
+    public String toString() {
+        return "OverdueLoan{" +
+                "loan=" + loan +
+                ", book=" + book +
+                ", member=" + member +
+                ", daysOverdue=" + daysOverdue +
+                '}';
+    }
+}
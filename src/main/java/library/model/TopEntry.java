@@ -0,0 +1,40 @@
+package library.model;
+
+public class TopEntry {
+
+    private String name;
+    private int count;
+
+    public TopEntry() {
+    }
+
+    public TopEntry(String name, int count) {
+        this.name = name;
+        this.count = count;
+    }
+
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+
+    @Override
+    public String toString() {
+        return "TopEntry{" +
+                "name='" + name + '\'' +
+                ", count=" + count +
+                '}';
+    }
+}
@@ -0,0 +1,756 @@
+package library.search;
+
+import library.dao.BookDao;
+import library.dao.DbExecutor;
+import library.model.Book;
+
+import java.sql.SQLException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// In-memory prefix index over the catalog for search-as-you-type. Terms
+// (normalized title, author, category and ISBN tokens) are kept in a sorted
+// dictionary, so all terms starting with a prefix form one contiguous range.
+// Each term points to a sorted int[] of book ids.
+//
+// Readers never lock: postings arrays are replaced, not modified. Writers are
+// serialized on the index. The index is filled from the database at startup
+// and then kept current by BookDao; until the first load completes, isReady()
+// is false and callers should fall back to the database search.
+//
+// Misspelled searches only look at title and author words ("names"), which
+// have postings of their own; a genre shared by thousands of books would
+// otherwise crowd out the titles and authors close to the query. Name words
+// are indexed by their trigrams: a word within k edits of the query shares
+// all but at most 4k of its trigrams, so only words sharing enough of them
+// are compared in full.
+public class CatalogIndex {
+
+    private static final CatalogIndex INSTANCE = new CatalogIndex();
+
+    private static final Pattern NON_TOKEN = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final int[] NO_IDS = new int[0];
+
+    // Query planning: how many terms to count per word before settling for a
+    // lower bound, and roughly how much more checking one candidate's own
+    // terms costs than reading one posting (measured on 100k books).
+    private static final int COUNT_TERMS_LIMIT = 1024;
+    private static final int VERIFY_COST = 32;
+
+    // Fuzzy search: words up to 3 characters must match exactly, up to 7 may
+    // be one edit away and longer ones two. One edit changes at most 4 trigrams.
+    private static final int ONE_EDIT_LENGTH = 4;
+    private static final int TWO_EDITS_LENGTH = 8;
+    private static final int TRIGRAMS_PER_EDIT = 4;
+    private static final int MAX_EDITS = 2;
+    private static final String[] NO_TERMS = new String[0];
+
+    private static class State {
+        final ConcurrentSkipListMap<String, int[]> terms = new ConcurrentSkipListMap<>();
+        final ConcurrentHashMap<Integer, String[]> termsByBook = new ConcurrentHashMap<>();
+        final ConcurrentHashMap<String, int[]> names = new ConcurrentHashMap<>();
+        final ConcurrentHashMap<Integer, String[]> namesByBook = new ConcurrentHashMap<>();
+        final ConcurrentHashMap<String, String[]> namesByTrigram = new ConcurrentHashMap<>();
+    }
+
+    // Growable id list used while bulk loading; ids arrive in ascending order.
+    private static class IdList {
+        int[] ids = new int[4];
+        int size;
+
+        void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+    }
+
+    // One put (terms set) or remove (terms null), recorded while a load runs.
+    private static class Change {
+        final int bookId;
+        final String[] terms;
+        final String[] names;
+
+        Change(int bookId, String[] terms, String[] names) {
+            this.bookId = bookId;
+            this.terms = terms;
+            this.names = names;
+        }
+    }
+
+    // A query word and the number of postings its prefix covers
+    // (or a lower bound, when counting stopped early).
+    private static class Word {
+        final String prefix;
+        final long postings;
+
+        Word(String prefix, long postings) {
+            this.prefix = prefix;
+            this.postings = postings;
+        }
+    }
+
+    // A book found by fuzzy search and its total number of edits.
+    private static class Hit {
+        final int bookId;
+        final int edits;
+
+        Hit(int bookId, int edits) {
+            this.bookId = bookId;
+            this.edits = edits;
+        }
+    }
+
+    // The name words close to one query word, with their edits.
+    private static class FuzzyWord {
+        final Map<String, Integer> close;
+        final long postings;
+        // booksByEdits[e]: books with a close term at most e edits away.
+        BitSet[] booksByEdits;
+
+        FuzzyWord(State current, Map<String, Integer> close) {
+            this.close = close;
+            long total = 0;
+            for (String term : close.keySet()) {
+                total += current.names.getOrDefault(term, NO_IDS).length;
+            }
+            this.postings = total;
+        }
+
+        void fillBooksByEdits(State current) {
+            booksByEdits = new BitSet[MAX_EDITS + 1];
+            for (int e = 0; e <= MAX_EDITS; e++) {
+                booksByEdits[e] = new BitSet();
+            }
+            for (Map.Entry<String, Integer> term : close.entrySet()) {
+                for (int id : current.names.getOrDefault(term.getKey(), NO_IDS)) {
+                    for (int e = term.getValue(); e <= MAX_EDITS; e++) {
+                        booksByEdits[e].set(id);
+                    }
+                }
+            }
+        }
+
+        // -1 when the book has no close term.
+        int editsFor(int bookId) {
+            for (int e = 0; e <= MAX_EDITS; e++) {
+                if (booksByEdits[e].get(bookId)) {
+                    return e;
+                }
+            }
+            return -1;
+        }
+
+        int fewestEdits(String[] terms) {
+            int fewest = -1;
+            for (String term : terms) {
+                Integer edits = close.get(term);
+                if (edits != null && (fewest < 0 || edits < fewest)) {
+                    fewest = edits;
+                }
+            }
+            return fewest;
+        }
+    }
+
+    // Fewest edits first, then lowest id.
+    private static final Comparator<Hit> BEST_FIRST =
+            Comparator.<Hit>comparingInt(hit -> hit.edits).thenComparingInt(hit -> hit.bookId);
+
+    private volatile State state = new State();
+    private volatile boolean ready;
+
+    private final Object loadLock = new Object();
+
+    // Changes made while a load is running, replayed onto the loaded state.
+    private List<Change> changesDuringLoad;
+
+    private CatalogIndex() {
+    }
+
+    public static CatalogIndex getInstance() {
+        return INSTANCE;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int getBookCount() {
+        return state.termsByBook.size();
+    }
+
+    public int getTermCount() {
+        return state.terms.size();
+    }
+
+    public void loadInBackground() {
+        DbExecutor.submit(() -> {
+            load();
+            return null;
+        }).exceptionally(e -> {
+            e.printStackTrace();
+            return null;
+        });
+    }
+
+    // Rebuilds the whole index from the books table. Loads run one at a
+    // time; a load requested while another runs starts when it finishes,
+    // so it still sees every book the earlier one may have missed.
+    public void load() throws SQLException {
+        synchronized (loadLock) {
+            synchronized (this) {
+                changesDuringLoad = new ArrayList<>();
+            }
+
+            try {
+                State loaded = build();
+
+                synchronized (this) {
+                    for (Change change : changesDuringLoad) {
+                        remove(loaded, change.bookId);
+                        if (change.terms != null) {
+                            add(loaded, change.bookId, change.terms, change.names);
+                        }
+                    }
+                    state = loaded;
+                    ready = true;
+                }
+            } finally {
+                synchronized (this) {
+                    changesDuringLoad = null;
+                }
+            }
+        }
+    }
+
+    private static State build() throws SQLException {
+        Map<String, IdList> building = new HashMap<>();
+        Map<String, IdList> buildingNames = new HashMap<>();
+        State loaded = new State();
+
+        try (Stream<Book> books = new BookDao().streamAllBooks()) {
+            books.forEach(book -> {
+                String[] terms = termsOf(book);
+                loaded.termsByBook.put(book.getId(), terms);
+                for (String term : terms) {
+                    building.computeIfAbsent(term, t -> new IdList()).add(book.getId());
+                }
+
+                String[] names = namesOf(book);
+                loaded.namesByBook.put(book.getId(), names);
+                for (String name : names) {
+                    buildingNames.computeIfAbsent(name, n -> new IdList()).add(book.getId());
+                }
+            });
+        } catch (RuntimeException e) {
+            if (e.getCause() instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            throw e;
+        }
+
+        for (Map.Entry<String, IdList> entry : building.entrySet()) {
+            IdList list = entry.getValue();
+            loaded.terms.put(entry.getKey(), Arrays.copyOf(list.ids, list.size));
+        }
+
+        Map<String, List<String>> trigrams = new HashMap<>();
+        for (Map.Entry<String, IdList> entry : buildingNames.entrySet()) {
+            IdList list = entry.getValue();
+            loaded.names.put(entry.getKey(), Arrays.copyOf(list.ids, list.size));
+            if (isWord(entry.getKey())) {
+                for (String trigram : trigrams(entry.getKey())) {
+                    trigrams.computeIfAbsent(trigram, g -> new ArrayList<>()).add(entry.getKey());
+                }
+            }
+        }
+        for (Map.Entry<String, List<String>> entry : trigrams.entrySet()) {
+            loaded.namesByTrigram.put(entry.getKey(), entry.getValue().toArray(NO_TERMS));
+        }
+        return loaded;
+    }
+
+    // Adds the book, or replaces what was indexed for it before.
+    public synchronized void put(Book book) {
+        String[] terms = termsOf(book);
+        String[] names = namesOf(book);
+        if (changesDuringLoad != null) {
+            changesDuringLoad.add(new Change(book.getId(), terms, names));
+        }
+        remove(state, book.getId());
+        add(state, book.getId(), terms, names);
+    }
+
+    public synchronized void remove(int bookId) {
+        if (changesDuringLoad != null) {
+            changesDuringLoad.add(new Change(bookId, null, null));
+        }
+        remove(state, bookId);
+    }
+
+    // Ids of books that have, for every word of the text, a term starting
+    // with it. At most limit ids are returned, in ascending id order; when
+    // there are more matches, which ones are returned is unspecified.
+    public int[] search(String text, int limit) {
+        List<String> words = new ArrayList<>(new LinkedHashSet<>(tokens(text)));
+        if (words.isEmpty() || limit <= 0) {
+            return NO_IDS;
+        }
+
+        State current = state;
+        List<Word> plan = plan(current, words);
+
+        BitSet candidates = null;
+        for (int w = 0; w < plan.size(); w++) {
+            Word word = plan.get(w);
+            boolean last = (w == plan.size() - 1);
+
+            int max = last ? limit : Integer.MAX_VALUE;
+            if (candidates != null && (long) candidates.cardinality() * VERIFY_COST <= word.postings) {
+                candidates = verified(current, word.prefix, candidates, max);
+            } else {
+                candidates = matching(current, word.prefix, candidates, max);
+            }
+
+            if (candidates.isEmpty()) {
+                return NO_IDS;
+            }
+        }
+
+        int[] result = new int[Math.min(limit, candidates.cardinality())];
+        int n = 0;
+        for (int id = candidates.nextSetBit(0); id >= 0 && n < result.length; id = candidates.nextSetBit(id + 1)) {
+            result[n++] = id;
+        }
+        return result;
+    }
+
+    // Ids of books that have, for every word of the text, a title or author
+    // word within a few edits of it (see ONE_EDIT_LENGTH), so "tolkein" finds
+    // "tolkien". Words are matched whole, not as prefixes. At most limit ids are
+    // returned, fewest edits first; ties go to the lowest id.
+    public int[] fuzzySearch(String text, int limit) {
+        List<String> words = new ArrayList<>(new LinkedHashSet<>(tokens(text)));
+        if (words.isEmpty() || limit <= 0) {
+            return NO_IDS;
+        }
+
+        State current = state;
+        List<FuzzyWord> plan = new ArrayList<>(words.size());
+        for (String word : words) {
+            FuzzyWord fuzzy = new FuzzyWord(current, closeTerms(current, word));
+            if (fuzzy.close.isEmpty()) {
+                return NO_IDS;
+            }
+            plan.add(fuzzy);
+        }
+
+        // The word whose close terms cover the fewest books gives the
+        // candidates. The other words are looked up in a bitset of their
+        // books, or checked against each candidate's own terms when that
+        // costs less than filling the bitset (as in search()).
+        plan.sort(Comparator.comparingLong(fuzzy -> fuzzy.postings));
+        FuzzyWord first = plan.get(0);
+        for (FuzzyWord other : plan.subList(1, plan.size())) {
+            if (first.postings * VERIFY_COST > other.postings) {
+                other.fillBooksByEdits(current);
+            }
+        }
+
+        // The first word's terms are read fewest edits first, so a book is
+        // scored the first time it is seen. The queue keeps the best limit
+        // hits with the worst of them at its head.
+        List<Map.Entry<String, Integer>> firstTerms = new ArrayList<>(first.close.entrySet());
+        firstTerms.sort(Map.Entry.comparingByValue());
+
+        PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1, BEST_FIRST.reversed());
+        BitSet seen = new BitSet();
+        for (Map.Entry<String, Integer> term : firstTerms) {
+            int termEdits = term.getValue();
+            if (best.size() == limit && termEdits > best.peek().edits) {
+                break;
+            }
+
+            for (int id : current.names.getOrDefault(term.getKey(), NO_IDS)) {
+                if (seen.get(id)) {
+                    continue;
+                }
+                seen.set(id);
+                if (best.size() == limit && !isBetter(id, termEdits, best.peek())) {
+                    continue;
+                }
+
+                int edits = totalEdits(current, id, plan, termEdits);
+                if (edits >= 0 && (best.size() < limit || isBetter(id, edits, best.peek()))) {
+                    best.add(new Hit(id, edits));
+                    if (best.size() > limit) {
+                        best.poll();
+                    }
+                }
+            }
+        }
+
+        int[] result = new int[best.size()];
+        for (int n = result.length - 1; n >= 0; n--) {
+            result[n] = best.poll().bookId;
+        }
+        return result;
+    }
+
+    // Orders the words by how many postings their prefix covers, smallest
+    // first. Counting stops once a word is known to cover more than the
+    // smallest seen so far, or after COUNT_TERMS_LIMIT terms; longer words
+    // are counted first to get a low bound early.
+    private static List<Word> plan(State current, List<String> words) {
+        words.sort((a, b) -> b.length() - a.length());
+
+        List<Word> plan = new ArrayList<>(words.size());
+        long smallest = Long.MAX_VALUE;
+        for (String prefix : words) {
+            long postings = 0;
+            int terms = 0;
+            for (int[] ids : prefixRange(current.terms, prefix).values()) {
+                postings += ids.length;
+                if (postings > smallest) {
+                    break;
+                }
+                if (++terms == COUNT_TERMS_LIMIT) {
+                    break;
+                }
+            }
+            smallest = Math.min(smallest, postings);
+            plan.add(new Word(prefix, postings));
+        }
+
+        plan.sort((a, b) -> Long.compare(a.postings, b.postings));
+        return plan;
+    }
+
+    // Books with a term starting with the prefix, restricted to the candidates
+    // if there are any, stopping once max books have been found.
+    private static BitSet matching(State current, String prefix, BitSet candidates, int max) {
+        BitSet matches = new BitSet();
+        int found = 0;
+
+        for (int[] ids : prefixRange(current.terms, prefix).values()) {
+            for (int id : ids) {
+                if ((candidates == null || candidates.get(id)) && !matches.get(id)) {
+                    matches.set(id);
+                    if (++found == max) {
+                        return matches;
+                    }
+                }
+            }
+        }
+        return matches;
+    }
+
+    // The candidates that have a term starting with the prefix, stopping
+    // once max books have been found.
+    private static BitSet verified(State current, String prefix, BitSet candidates, int max) {
+        BitSet matches = new BitSet();
+        int found = 0;
+
+        for (int id = candidates.nextSetBit(0); id >= 0; id = candidates.nextSetBit(id + 1)) {
+            if (hasTermStartingWith(current, id, prefix)) {
+                matches.set(id);
+                if (++found == max) {
+                    break;
+                }
+            }
+        }
+        return matches;
+    }
+
+    private static boolean hasTermStartingWith(State current, int bookId, String prefix) {
+        String[] terms = current.termsByBook.get(bookId);
+        if (terms != null) {
+            for (String term : terms) {
+                if (term.startsWith(prefix)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // Name words close enough to the word, with their number of edits.
+    // Only words sharing at least (trigrams - 4 * edits) trigrams with it can
+    // be close, so the others are never compared.
+    private static Map<String, Integer> closeTerms(State current, String word) {
+        Map<String, Integer> close = new HashMap<>();
+        int maxEdits = maxEdits(word);
+        if (maxEdits == 0 || !isWord(word)) {
+            if (current.names.containsKey(word)) {
+                close.put(word, 0);
+            }
+            return close;
+        }
+
+        Set<String> grams = trigrams(word);
+        int needed = Math.max(1, grams.size() - TRIGRAMS_PER_EDIT * maxEdits);
+
+        Map<String, Integer> shared = new HashMap<>();
+        for (String trigram : grams) {
+            for (String term : current.namesByTrigram.getOrDefault(trigram, NO_TERMS)) {
+                if (Math.abs(term.length() - word.length()) <= maxEdits) {
+                    shared.merge(term, 1, Integer::sum);
+                }
+            }
+        }
+
+        for (Map.Entry<String, Integer> entry : shared.entrySet()) {
+            if (entry.getValue() >= needed) {
+                int edits = editDistance(word, entry.getKey(), maxEdits);
+                if (edits <= maxEdits) {
+                    close.put(entry.getKey(), edits);
+                }
+            }
+        }
+        return close;
+    }
+
+    private static boolean isBetter(int bookId, int edits, Hit worst) {
+        return edits < worst.edits || (edits == worst.edits && bookId < worst.bookId);
+    }
+
+    // Adds the edits for the second and later words to those of the first,
+    // or returns -1 when the book has no name word close to one of them.
+    private static int totalEdits(State current, int bookId, List<FuzzyWord> plan, int firstEdits) {
+        int edits = firstEdits;
+        String[] names = null;
+        for (FuzzyWord fuzzy : plan.subList(1, plan.size())) {
+            int wordEdits;
+            if (fuzzy.booksByEdits != null) {
+                wordEdits = fuzzy.editsFor(bookId);
+            } else {
+                if (names == null) {
+                    names = current.namesByBook.getOrDefault(bookId, NO_TERMS);
+                }
+                wordEdits = fuzzy.fewestEdits(names);
+            }
+            if (wordEdits < 0) {
+                return -1;
+            }
+            edits += wordEdits;
+        }
+        return edits;
+    }
+
+    private static int maxEdits(String word) {
+        if (word.length() >= TWO_EDITS_LENGTH) {
+            return MAX_EDITS;
+        }
+        return (word.length() >= ONE_EDIT_LENGTH) ? 1 : 0;
+    }
+
+    // Only terms with a letter take part in fuzzy search, not ISBN parts.
+    private static boolean isWord(String term) {
+        for (int i = 0; i < term.length(); i++) {
+            if (Character.isLetter(term.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Distinct trigrams of the term padded with two spaces on each side,
+    // so "cat" gives "  c", " ca", "cat", "at ", "t  ".
+    static Set<String> trigrams(String term) {
+        String padded = "  " + term + "  ";
+        Set<String> trigrams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    // Edits (insert, delete, substitute or swap two neighbours) between a and
+    // b, or max + 1 as soon as it is clear there are more than max.
+    static int editDistance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+
+        int[] beforePrevious = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] row = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= a.length(); i++) {
+            row[0] = i;
+            int rowMin = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = (a.charAt(i - 1) == b.charAt(j - 1)) ? 0 : 1;
+                int edits = Math.min(Math.min(previous[j] + 1, row[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    edits = Math.min(edits, beforePrevious[j - 2] + 1);
+                }
+                row[j] = edits;
+                rowMin = Math.min(rowMin, edits);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+
+            int[] recycled = beforePrevious;
+            beforePrevious = previous;
+            previous = row;
+            row = recycled;
+        }
+        return Math.min(previous[b.length()], max + 1);
+    }
+
+    private static ConcurrentNavigableMap<String, int[]> prefixRange(ConcurrentSkipListMap<String, int[]> terms,
+                                                                      String prefix) {
+        return terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private static void add(State target, int bookId, String[] terms, String[] names) {
+        target.termsByBook.put(bookId, terms);
+        for (String term : terms) {
+            target.terms.merge(term, new int[]{bookId}, (ids, single) -> withId(ids, bookId));
+        }
+
+        target.namesByBook.put(bookId, names);
+        for (String name : names) {
+            int[] before = target.names.get(name);
+            target.names.merge(name, new int[]{bookId}, (ids, single) -> withId(ids, bookId));
+            if (before == null && isWord(name)) {
+                for (String trigram : trigrams(name)) {
+                    target.namesByTrigram.merge(trigram, new String[]{name}, (words, single) -> withTerm(words, name));
+                }
+            }
+        }
+    }
+
+    private static void remove(State target, int bookId) {
+        String[] terms = target.termsByBook.remove(bookId);
+        if (terms != null) {
+            for (String term : terms) {
+                target.terms.computeIfPresent(term, (t, ids) -> withoutId(ids, bookId));
+            }
+        }
+
+        String[] names = target.namesByBook.remove(bookId);
+        if (names != null) {
+            for (String name : names) {
+                int[] after = target.names.computeIfPresent(name, (n, ids) -> withoutId(ids, bookId));
+                if (after == null && isWord(name)) {
+                    for (String trigram : trigrams(name)) {
+                        target.namesByTrigram.computeIfPresent(trigram, (g, words) -> withoutTerm(words, name));
+                    }
+                }
+            }
+        }
+    }
+
+    private static int[] withId(int[] ids, int id) {
+        int at = Arrays.binarySearch(ids, id);
+        if (at >= 0) {
+            return ids;
+        }
+        at = -at - 1;
+        int[] copy = new int[ids.length + 1];
+        System.arraycopy(ids, 0, copy, 0, at);
+        copy[at] = id;
+        System.arraycopy(ids, at, copy, at + 1, ids.length - at);
+        return copy;
+    }
+
+    // Returns null when the last id goes, which drops the term.
+    private static int[] withoutId(int[] ids, int id) {
+        int at = Arrays.binarySearch(ids, id);
+        if (at < 0) {
+            return ids;
+        }
+        if (ids.length == 1) {
+            return null;
+        }
+        int[] copy = new int[ids.length - 1];
+        System.arraycopy(ids, 0, copy, 0, at);
+        System.arraycopy(ids, at + 1, copy, at, ids.length - at - 1);
+        return copy;
+    }
+
+    private static String[] withTerm(String[] terms, String term) {
+        String[] copy = Arrays.copyOf(terms, terms.length + 1);
+        copy[terms.length] = term;
+        return copy;
+    }
+
+    // Returns null when the last term goes, which drops the trigram.
+    private static String[] withoutTerm(String[] terms, String term) {
+        for (int i = 0; i < terms.length; i++) {
+            if (terms[i].equals(term)) {
+                if (terms.length == 1) {
+                    return null;
+                }
+                String[] copy = new String[terms.length - 1];
+                System.arraycopy(terms, 0, copy, 0, i);
+                System.arraycopy(terms, i + 1, copy, i, terms.length - i - 1);
+                return copy;
+            }
+        }
+        return terms;
+    }
+
+    private static String[] termsOf(Book book) {
+        Set<String> terms = new LinkedHashSet<>();
+        terms.addAll(tokens(book.getTitle()));
+        terms.addAll(tokens(book.getAuthor()));
+        terms.addAll(tokens(book.getCategory()));
+
+        List<String> isbnParts = tokens(book.getIsbn());
+        terms.addAll(isbnParts);
+        // "978-0-13-468599-1" is also findable as typed without dashes.
+        if (isbnParts.size() > 1) {
+            terms.add(String.join("", isbnParts));
+        }
+        return terms.toArray(new String[0]);
+    }
+
+    // The title and author words, which fuzzy search matches against.
+    private static String[] namesOf(Book book) {
+        Set<String> names = new LinkedHashSet<>();
+        names.addAll(tokens(book.getTitle()));
+        names.addAll(tokens(book.getAuthor()));
+        return names.toArray(new String[0]);
+    }
+
+    // Lower case, accents removed, split on anything that is not a letter or digit.
+    static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        for (String token : NON_TOKEN.split(folded.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,99 @@
+package library.util;
+
+import java.util.Arrays;
+
+// Open-addressing int -> int hash map; avoids boxing when counting per id.
+public class IntIntMap {
+
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private int[] keys;
+    private int[] values;
+    private boolean[] used;
+    private int size;
+
+    public IntIntMap() {
+        this(16);
+    }
+
+    public IntIntMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        keys = new int[capacity];
+        values = new int[capacity];
+        used = new boolean[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(int key) {
+        return used[indexOf(key)];
+    }
+
+    public int get(int key) {
+        return getOrDefault(key, 0);
+    }
+
+    public int getOrDefault(int key, int defaultValue) {
+        int i = indexOf(key);
+        return used[i] ? values[i] : defaultValue;
+    }
+
+    public void put(int key, int value) {
+        int i = indexOf(key);
+        if (used[i]) {
+            values[i] = value;
+            return;
+        }
+
+        keys[i] = key;
+        values[i] = value;
+        used[i] = true;
+        if (++size > keys.length * LOAD_FACTOR) {
+            grow();
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(used, false);
+        size = 0;
+    }
+
+    private int indexOf(int key) {
+        int mask = keys.length - 1;
+        int i = mix(key) & mask;
+        while (used[i] && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        boolean[] oldUsed = used;
+
+        keys = new int[oldKeys.length * 2];
+        values = new int[oldKeys.length * 2];
+        used = new boolean[oldKeys.length * 2];
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                int j = indexOf(oldKeys[i]);
+                keys[j] = oldKeys[i];
+                values[j] = oldValues[i];
+                used[j] = true;
+            }
+        }
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
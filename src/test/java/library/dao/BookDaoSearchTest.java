@@ -0,0 +1,63 @@
+package library.dao;
+
+import library.model.Book;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BookDaoSearchTest {
+
+    @TempDir
+    Path dir;
+
+    private Connection conn;
+    private final BookDao bookDao = new BookDao();
+
+    @BeforeEach
+    void createSchema() throws SQLException {
+        conn = DriverManager.getConnection("jdbc:sqlite:" + dir.resolve("test.db"));
+        try (Statement stmt = conn.createStatement()) {
+            for (Migration migration : Migrations.all()) {
+                for (String sql : migration.getStatements()) {
+                    stmt.execute(sql);
+                }
+            }
+        }
+
+        bookDao.upsertBooks(conn, List.of(
+                new Book("The Fellowship of the Ring", "J. R. R. Tolkien", "978-0-618-64015-7", "Fantasy", 2),
+                new Book("The Hobbit", "J. R. R. Tolkien", "978-0-547-92822-7", "Fantasy", 1)
+        ), 1000);
+    }
+
+    @AfterEach
+    void close() throws SQLException {
+        conn.close();
+    }
+
+    @Test
+    void hyphenatedIsbnIsFoundWithoutDashes() throws SQLException {
+        assertEquals(List.of("978-0-618-64015-7"), isbns("9780618640157"));
+        assertEquals(List.of("978-0-618-64015-7"), isbns(" 978 0618 640157 "));
+    }
+
+    @Test
+    void isbnMatchingBothWaysIsListedOnce() throws SQLException {
+        assertEquals(List.of("978-0-618-64015-7"), isbns("978-0-618-64015-7"));
+        assertEquals(2, isbns("tolkien").size());
+    }
+
+    private List<String> isbns(String keyword) throws SQLException {
+        return bookDao.searchBooks(conn, keyword, 0, 10).stream().map(Book::getIsbn).toList();
+    }
+}
@@ -0,0 +1,101 @@
+package library.dao;
+
+import library.model.Book;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BookDaoUpsertTest {
+
+    @TempDir
+    Path dir;
+
+    private Connection conn;
+
+    @BeforeEach
+    void createSchema() throws SQLException {
+        conn = DriverManager.getConnection("jdbc:sqlite:" + dir.resolve("test.db"));
+        try (Statement stmt = conn.createStatement()) {
+            for (Migration migration : Migrations.all()) {
+                for (String sql : migration.getStatements()) {
+                    stmt.execute(sql);
+                }
+            }
+        }
+    }
+
+    @AfterEach
+    void close() throws SQLException {
+        conn.close();
+    }
+
+    @Test
+    void duplicateIsbnInOneBatchKeepsFullTextIndexIntact() throws SQLException {
+        upsert(List.of(
+                new Book("Alpha Zebra", "First Author", "DUP-1", "", 1),
+                new Book("Beta Yak", "Second Author", "DUP-1", "", 2)
+        ));
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("INSERT INTO books_fts(books_fts) VALUES('integrity-check')");
+        }
+
+        assertEquals(1, count("SELECT COUNT(*) FROM books"));
+        assertEquals(0, matches("alpha"));
+        assertEquals(1, matches("beta"));
+        assertEquals(2, count("SELECT available_copies FROM books WHERE isbn = 'DUP-1'"));
+    }
+
+    @Test
+    void updateOfExistingBookIsReindexed() throws SQLException {
+        upsert(List.of(new Book("Alpha Zebra", "First Author", "ISBN-1", "", 1)));
+        upsert(List.of(
+                new Book("Gamma Owl", "First Author", "ISBN-1", "", 3),
+                new Book("Delta Fox", "Other Author", "ISBN-2", "", 1)
+        ));
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("INSERT INTO books_fts(books_fts) VALUES('integrity-check')");
+        }
+
+        assertEquals(0, matches("alpha"));
+        assertEquals(1, matches("gamma"));
+        assertEquals(1, matches("delta"));
+        assertEquals(3, count("SELECT available_copies FROM books WHERE isbn = 'ISBN-1'"));
+    }
+
+    private void upsert(List<Book> books) throws SQLException {
+        conn.setAutoCommit(false);
+        new BookDao().upsertBooks(conn, books, 1000);
+        conn.commit();
+        conn.setAutoCommit(true);
+    }
+
+    private int matches(String word) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT COUNT(*) FROM books_fts WHERE books_fts MATCH ?")) {
+            ps.setString(1, word);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    private int count(String sql) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package library.dao;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MemberPhoneTokensTest {
+
+    // The migration that re-indexes phones written by the older ones.
+    private static final int PHONE_DIGITS_VERSION = 10;
+
+    private static final List<String> PHONES = List.of(
+            "050#123", "tel:0501234567", "+994 (50) 123-45-67", "12", "no phone");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void migratedPhonesAreIndexedLikeNewOnes() throws SQLException {
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + dir.resolve("test.db"));
+             Statement stmt = conn.createStatement()) {
+
+            List<Migration> migrations = Migrations.all();
+            for (Migration migration : migrations) {
+                if (migration.getVersion() < PHONE_DIGITS_VERSION) {
+                    for (String sql : migration.getStatements()) {
+                        stmt.execute(sql);
+                    }
+                }
+            }
+
+            String insert = """
+                    INSERT INTO members(name, surname, username, password, phone, email)
+                    VALUES ('Name', 'Surname', ?, 'secret', ?, 'a@b.c')
+                    """;
+            try (PreparedStatement ps = conn.prepareStatement(insert)) {
+                for (int i = 0; i < PHONES.size(); i++) {
+                    ps.setString(1, "user" + i);
+                    ps.setString(2, PHONES.get(i));
+                    ps.executeUpdate();
+                }
+            }
+
+            for (Migration migration : migrations) {
+                if (migration.getVersion() >= PHONE_DIGITS_VERSION) {
+                    for (String sql : migration.getStatements()) {
+                        stmt.execute(sql);
+                    }
+                }
+            }
+
+            String select = """
+                    SELECT members.phone, members_fts.phone AS tokens
+                      FROM members
+                      JOIN members_fts ON members_fts.rowid = members.id
+                    """;
+            int rows = 0;
+            try (ResultSet rs = stmt.executeQuery(select)) {
+                while (rs.next()) {
+                    assertEquals(tokens(MemberDao.phoneTokens(rs.getString("phone"))),
+                            tokens(rs.getString("tokens")), rs.getString("phone"));
+                    rows++;
+                }
+            }
+            assertEquals(PHONES.size(), rows);
+        }
+    }
+
+    private static Set<String> tokens(String text) {
+        Set<String> tokens = new TreeSet<>(Arrays.asList(text == null ? new String[0] : text.split(" ")));
+        tokens.remove("");
+        return tokens;
+    }
+}